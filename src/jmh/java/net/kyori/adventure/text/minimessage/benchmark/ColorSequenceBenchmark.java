@@ -0,0 +1,116 @@
+/*
+ * This file is part of adventure-text-minimessage, licensed under the MIT License.
+ *
+ * Copyright (c) 2018-2020 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.adventure.text.minimessage.benchmark;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.minimessage.MiniMessage;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// re-parsing the same gradient and rainbow tags looks their colors up, the cycling variants use more phases than are cached,
+// and the frame variants compare parsing all frames of an animation at once with parsing each of them
+@State(Scope.Benchmark)
+public class ColorSequenceBenchmark {
+
+    private static final int PHASES = 1024;
+    private static final int FRAMES = 20;
+
+    @Param({"16", "128", "1024"})
+    public int length;
+
+    private final MiniMessage miniMessage = MiniMessage.get();
+    private final String[] gradients = new String[PHASES];
+    private final String[] rainbows = new String[PHASES];
+    private int phase;
+
+    @Setup
+    public void setup() {
+        final StringBuilder text = new StringBuilder();
+        for(int i = 0; i < this.length; i++) {
+            text.append((char) ('a' + i % 26));
+        }
+        for(int i = 0; i < PHASES; i++) {
+            this.gradients[i] = "<gradient:red:blue:green:" + (i / (float) PHASES) + ">" + text;
+            this.rainbows[i] = "<rainbow:" + i + ">" + text;
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Component gradientRepeated() {
+        return this.miniMessage.parse(this.gradients[0]);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Component gradientCycling() {
+        this.phase = (this.phase + 1) % PHASES;
+        return this.miniMessage.parse(this.gradients[this.phase]);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Component rainbowRepeated() {
+        return this.miniMessage.parse(this.rainbows[0]);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Component rainbowCycling() {
+        this.phase = (this.phase + 1) % PHASES;
+        return this.miniMessage.parse(this.rainbows[this.phase]);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public List<Component> gradientFrames() {
+        return this.miniMessage.frames(this.gradients[0], FRAMES);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Component gradientFramesReparsed() {
+        Component last = null;
+        for(int i = 0; i < FRAMES; i++) {
+            last = this.miniMessage.parse(this.gradients[i * PHASES / FRAMES]);
+        }
+        return last;
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * This file is part of adventure-text-minimessage, licensed under the MIT License.
+ *
+ * Copyright (c) 2018-2020 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.adventure.text.minimessage.benchmark;
+
+import net.kyori.adventure.text.minimessage.MiniMessage;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+// escaping and stripping chat input, time per call should grow with the size of the input and not faster
+@State(Scope.Benchmark)
+public class EscapeBenchmark {
+
+    @Param({"16", "256", "4096", "65536"})
+    public int repetitions;
+
+    private final MiniMessage miniMessage = MiniMessage.get();
+    private String chat;
+    private String unclosed;
+    private String quotes;
+
+    @Setup
+    public void setup() {
+        final StringBuilder chat = new StringBuilder();
+        final StringBuilder unclosed = new StringBuilder("<hover:show_text");
+        final StringBuilder quotes = new StringBuilder("<hover:show_text:'");
+        for(int i = 0; i < this.repetitions; i++) {
+            chat.append("<red>Hello</red> <hover:show_text:'<blue>world'>world</hover>! ");
+            unclosed.append(":aa");
+            quotes.append("a\\'");
+        }
+        this.chat = chat.toString();
+        this.unclosed = unclosed.toString();
+        this.quotes = quotes.toString();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public String escapeChat() {
+        return this.miniMessage.escapeTokens(this.chat);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public String stripChat() {
+        return this.miniMessage.stripTokens(this.chat);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public String escapeUnclosed() {
+        return this.miniMessage.escapeTokens(this.unclosed);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public String stripUnclosed() {
+        return this.miniMessage.stripTokens(this.unclosed);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public String escapeQuotes() {
+        return this.miniMessage.escapeTokens(this.quotes);
+    }
+}
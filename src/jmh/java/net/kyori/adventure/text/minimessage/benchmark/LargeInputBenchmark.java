@@ -0,0 +1,93 @@
+/*
+ * This file is part of adventure-text-minimessage, licensed under the MIT License.
+ *
+ * Copyright (c) 2018-2020 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.adventure.text.minimessage.benchmark;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.minimessage.MiniMessage;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.StringReader;
+import java.nio.CharBuffer;
+import java.util.concurrent.TimeUnit;
+
+// book pages and changelogs, parsed from a string, a char buffer and a reader
+@State(Scope.Benchmark)
+public class LargeInputBenchmark {
+
+    @Param({"1024", "102400", "1048576"})
+    public int size;
+
+    private final MiniMessage miniMessage = MiniMessage.get();
+    private final MiniMessage streaming = MiniMessage.builder().streaming(true).build();
+    private String input;
+    private CharBuffer buffer;
+
+    @Setup
+    public void setup() {
+        final StringBuilder builder = new StringBuilder();
+        while(builder.length() < this.size) {
+            builder.append("<gold><bold>Rule ").append(builder.length()).append("</bold></gold>: <gray>Be nice to <hover:show_text:'<red>everyone'>everyone</hover>, ")
+                .append("no spamming and no advertising.</gray> <click:open_url:'https://example.com'>Read more</click>\n");
+        }
+        builder.setLength(this.size);
+        this.input = builder.toString();
+        this.buffer = CharBuffer.wrap(this.input.toCharArray());
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Component parseString() {
+        return this.miniMessage.parse(this.input);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Component parseCharSequence() {
+        return this.miniMessage.parse(this.buffer);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Component parseReader() {
+        return this.miniMessage.parse(new StringReader(this.input));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Component parseReaderStreaming() {
+        return this.streaming.parse(new StringReader(this.input));
+    }
+}
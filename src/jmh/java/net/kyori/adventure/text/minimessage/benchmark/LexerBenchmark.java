@@ -0,0 +1,92 @@
+/*
+ * This file is part of adventure-text-minimessage, licensed under the MIT License.
+ *
+ * Copyright (c) 2018-2020 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.adventure.text.minimessage.benchmark;
+
+import net.kyori.adventure.text.minimessage.Context;
+import net.kyori.adventure.text.minimessage.parser.MiniMessageLexer;
+import net.kyori.adventure.text.minimessage.parser.TableDrivenLexer;
+import net.kyori.adventure.text.minimessage.parser.Token;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// lexer only, long runs of plain text between a few tags, generated and hand-written lexer side by side
+@State(Scope.Benchmark)
+public class LexerBenchmark {
+
+    @Param({"16", "256", "4096"})
+    public int runLength;
+
+    private String text;
+    private String quoted;
+
+    @Setup
+    public void setup() {
+        final StringBuilder run = new StringBuilder();
+        while(run.length() < this.runLength) {
+            run.append("lorem ipsum dolor sit amet ");
+        }
+        run.setLength(this.runLength);
+        this.text = "<red>" + run + "<bold>" + run + "</bold>" + run;
+        this.quoted = "<hover:show_text:'" + run + "'>" + run + "</hover>";
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public List<Token> lexText() throws IOException {
+        return new MiniMessageLexer(this.text, Context.of(false, this.text, null)).scan();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public List<Token> lexQuoted() throws IOException {
+        return new MiniMessageLexer(this.quoted, Context.of(false, this.quoted, null)).scan();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public List<Token> lexTextTable() {
+        return new TableDrivenLexer(this.text, Context.of(false, this.text, null)).scan();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public List<Token> lexQuotedTable() {
+        return new TableDrivenLexer(this.quoted, Context.of(false, this.quoted, null)).scan();
+    }
+}
@@ -24,7 +24,9 @@
 package net.kyori.adventure.text.minimessage.benchmark;
 
 import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.minimessage.CompiledMessage;
 import net.kyori.adventure.text.minimessage.MiniMessage;
+import net.kyori.adventure.text.minimessage.Template;
 
 import org.openjdk.jmh.annotations.Benchmark;
 import org.openjdk.jmh.annotations.BenchmarkMode;
@@ -35,6 +37,12 @@ import java.util.concurrent.TimeUnit;
 
 public class MiniMessageBenchmark {
 
+    private static final String TEMPLATED = "<gray>[<green><world></green>] <yellow><player><gray>: <white><message>";
+    private static final CompiledMessage COMPILED = MiniMessage.get().compile(TEMPLATED);
+    private static final MiniMessage GROUPED = MiniMessage.builder().groupColors(8).build();
+    private static final String NESTED = "<red><bold><italic><underlined><font:uniform><insert:text><click:run_command:/help><hover:show_text:'hi'>"
+        + "a <gray>b <green>c <blue>d <yellow>e <gold>f <aqua>g <white>h";
+
     @Benchmark
     @BenchmarkMode(Mode.SampleTime)
     @OutputTimeUnit(TimeUnit.MICROSECONDS)
@@ -66,4 +74,33 @@ public class MiniMessageBenchmark {
         final String input = "<rainbow>COLORS ARE COOL";
         return MiniMessage.get().parse(input);
     }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Component testGradientGrouped() {
+        final String input = "<gradient:red:blue:green>COLORS ARE COOL AND SO ARE LONG GRADIENTS";
+        return GROUPED.parse(input);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Component testTemplated() {
+        return MiniMessage.get().parse(TEMPLATED, Template.of("world", Component.text("lobby")), Template.of("player", Component.text("MiniDigger")), Template.of("message", Component.text("hi")));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Component testTemplatedCompiled() {
+        return COMPILED.render(Template.of("world", Component.text("lobby")), Template.of("player", Component.text("MiniDigger")), Template.of("message", Component.text("hi")));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Component testNestedStyles() {
+        return MiniMessage.get().parse(NESTED);
+    }
 }
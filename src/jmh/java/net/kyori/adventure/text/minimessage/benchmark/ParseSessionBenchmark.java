@@ -0,0 +1,76 @@
+/*
+ * This file is part of adventure-text-minimessage, licensed under the MIT License.
+ *
+ * Copyright (c) 2018-2020 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.adventure.text.minimessage.benchmark;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.minimessage.MiniMessage;
+import net.kyori.adventure.text.minimessage.ParseSessionPool;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+// run with the gc profiler (-prof gc) to compare gc.alloc.rate.norm between the pooling strategies
+@State(Scope.Benchmark)
+public class ParseSessionBenchmark {
+
+    @Param({"none", "threadLocal", "bounded"})
+    public String pool;
+
+    private MiniMessage miniMessage;
+
+    @Setup
+    public void setup() {
+        final ParseSessionPool sessionPool;
+        if(this.pool.equals("none")) {
+            sessionPool = ParseSessionPool.none();
+        } else if(this.pool.equals("threadLocal")) {
+            sessionPool = ParseSessionPool.threadLocal();
+        } else {
+            sessionPool = ParseSessionPool.bounded(Runtime.getRuntime().availableProcessors());
+        }
+        this.miniMessage = MiniMessage.builder().sessionPool(sessionPool).build();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public Component parseShort() {
+        return this.miniMessage.parse("<gray>[<green>Lobby</green>] <yellow>MiniDigger<gray>: <white>hello there");
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public Component parseNested() {
+        return this.miniMessage.parse("<hover:show_text:'<red>Click to <bold>teleport'><click:run_command:/spawn><green>Spawn</click></hover>");
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * This file is part of adventure-text-minimessage, licensed under the MIT License.
+ *
+ * Copyright (c) 2018-2020 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.adventure.text.minimessage.benchmark;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.TextComponent;
+import net.kyori.adventure.text.event.ClickEvent;
+import net.kyori.adventure.text.event.HoverEvent;
+import net.kyori.adventure.text.format.NamedTextColor;
+import net.kyori.adventure.text.format.TextDecoration;
+import net.kyori.adventure.text.minimessage.MiniMessage;
+import net.kyori.adventure.text.minimessage.SerializeCache;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+// serializing trees with many siblings and trees with deeply nested children, with and without a serialize cache
+@State(Scope.Benchmark)
+public class SerializerBenchmark {
+
+    @Param({"16", "256", "4096"})
+    public int size;
+
+    private final MiniMessage miniMessage = MiniMessage.get();
+    private final MiniMessage cachedMiniMessage = MiniMessage.builder().serializeCache(SerializeCache.create(1024)).build();
+    private final StringBuilder output = new StringBuilder();
+    private Component wide;
+    private Component deep;
+
+    @Setup
+    public void setup() {
+        final NamedTextColor[] colors = {NamedTextColor.RED, NamedTextColor.GOLD, NamedTextColor.GREEN, NamedTextColor.BLUE};
+        final TextComponent.Builder wide = Component.text();
+        for(int i = 0; i < this.size; i++) {
+            Component child = Component.text("word " + i + " ", colors[i % colors.length]);
+            if(i % 3 == 0) {
+                child = child.decorate(TextDecoration.BOLD);
+            }
+            if(i % 5 == 0) {
+                child = child.hoverEvent(HoverEvent.showText(Component.text("say \"" + i + "\"", NamedTextColor.GRAY)));
+            }
+            if(i % 7 == 0) {
+                child = child.clickEvent(ClickEvent.runCommand("/say " + i));
+            }
+            wide.append(child);
+        }
+        this.wide = wide.build();
+
+        Component deep = Component.text("bottom");
+        for(int i = 0; i < this.size; i++) {
+            deep = Component.text().color(colors[i % colors.length]).append(Component.text("level " + i + " ")).append(deep).build();
+        }
+        this.deep = deep;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public String serializeWide() {
+        return this.miniMessage.serialize(this.wide);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public String serializeDeep() {
+        return this.miniMessage.serialize(this.deep);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public int serializeWideIntoBuilder() {
+        this.output.setLength(0);
+        this.miniMessage.serialize(this.wide, this.output);
+        return this.output.length();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public int serializeDeepIntoBuilder() {
+        this.output.setLength(0);
+        this.miniMessage.serialize(this.deep, this.output);
+        return this.output.length();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public String serializeWideCached() {
+        return this.cachedMiniMessage.serialize(this.wide);
+    }
+}
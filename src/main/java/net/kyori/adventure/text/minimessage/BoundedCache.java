@@ -0,0 +1,157 @@
+/*
+ * This file is part of adventure-text-minimessage, licensed under the MIT License.
+ *
+ * Copyright (c) 2018-2020 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.adventure.text.minimessage;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * A size bounded, lock striped LRU cache.
+ *
+ * <p>Every stripe is an access-ordered {@link LinkedHashMap} guarded by its own lock, so threads only contend
+ * when their keys hash to the same stripe. Values are computed outside of the lock.</p>
+ *
+ * <p>Eviction is least recently used per stripe, so an entry can be evicted before the whole cache is full.
+ * Stripes hold at least {@value #MIN_STRIPE_SIZE} entries, small caches are a single exact LRU.</p>
+ *
+ * @param <K> the key type
+ * @param <V> the value type
+ */
+final class BoundedCache<K, V> {
+  private static final int MAX_STRIPES = 16;
+  static final int MIN_STRIPE_SIZE = 64;
+
+  private final Stripe<K, V>[] stripes;
+  private final int mask;
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder evictions = new LongAdder();
+
+  @SuppressWarnings("unchecked")
+  BoundedCache(final int maximumSize) {
+    if(maximumSize <= 0) {
+      throw new IllegalArgumentException("maximumSize must be positive, was " + maximumSize);
+    }
+    final int count = Math.min(MAX_STRIPES, Integer.highestOneBit(Math.max(1, maximumSize / MIN_STRIPE_SIZE)));
+    final int perStripe = (maximumSize + count - 1) / count;
+    this.stripes = new Stripe[count];
+    for(int i = 0; i < count; i++) {
+      this.stripes[i] = new Stripe<>(perStripe, this.evictions);
+    }
+    this.mask = count - 1;
+  }
+
+  @NonNull V get(final @NonNull K key, final @NonNull Function<? super K, ? extends V> loader) {
+    final Stripe<K, V> stripe = this.stripe(key);
+    V value;
+    synchronized(stripe) {
+      value = stripe.get(key);
+    }
+    if(value != null) {
+      this.hits.increment();
+      return value;
+    }
+    this.misses.increment();
+    value = loader.apply(key);
+    synchronized(stripe) {
+      stripe.put(key, value);
+    }
+    return value;
+  }
+
+  @Nullable V getIfPresent(final @NonNull K key) {
+    final Stripe<K, V> stripe = this.stripe(key);
+    final V value;
+    synchronized(stripe) {
+      value = stripe.get(key);
+    }
+    if(value != null) {
+      this.hits.increment();
+    } else {
+      this.misses.increment();
+    }
+    return value;
+  }
+
+  void put(final @NonNull K key, final @NonNull V value) {
+    final Stripe<K, V> stripe = this.stripe(key);
+    synchronized(stripe) {
+      stripe.put(key, value);
+    }
+  }
+
+  long size() {
+    long size = 0;
+    for(final Stripe<K, V> stripe : this.stripes) {
+      synchronized(stripe) {
+        size += stripe.size();
+      }
+    }
+    return size;
+  }
+
+  void clear() {
+    for(final Stripe<K, V> stripe : this.stripes) {
+      synchronized(stripe) {
+        stripe.clear();
+      }
+    }
+  }
+
+  @NonNull CacheStats stats() {
+    return new CacheStats(this.hits.sum(), this.misses.sum(), this.evictions.sum());
+  }
+
+  private Stripe<K, V> stripe(final K key) {
+    final int hash = key.hashCode();
+    return this.stripes[(hash ^ (hash >>> 16)) & this.mask];
+  }
+
+  private static final class Stripe<K, V> extends LinkedHashMap<K, V> {
+    private static final long serialVersionUID = 42L;
+
+    private final int capacity;
+    private final transient LongAdder evictions;
+
+    Stripe(final int capacity, final LongAdder evictions) {
+      super(16, 0.75f, true);
+      this.capacity = capacity;
+      this.evictions = evictions;
+    }
+
+    @Override
+    protected boolean removeEldestEntry(final Map.Entry<K, V> eldest) {
+      if(this.size() > this.capacity) {
+        this.evictions.increment();
+        return true;
+      }
+      return false;
+    }
+  }
+}
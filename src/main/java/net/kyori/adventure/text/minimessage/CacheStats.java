@@ -0,0 +1,104 @@
+/*
+ * This file is part of adventure-text-minimessage, licensed under the MIT License.
+ *
+ * Copyright (c) 2018-2020 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.adventure.text.minimessage;
+
+import net.kyori.examination.Examinable;
+import net.kyori.examination.ExaminableProperty;
+import net.kyori.examination.string.StringExaminer;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.util.stream.Stream;
+
+/**
+ * A snapshot of the counters of a cache.
+ *
+ * @since 4.1.0
+ */
+public final class CacheStats implements Examinable {
+  private final long hits;
+  private final long misses;
+  private final long evictions;
+
+  CacheStats(final long hits, final long misses, final long evictions) {
+    this.hits = hits;
+    this.misses = misses;
+    this.evictions = evictions;
+  }
+
+  /**
+   * Gets the number of lookups that found a cached value.
+   *
+   * @return the hit count
+   * @since 4.1.0
+   */
+  public long hits() {
+    return this.hits;
+  }
+
+  /**
+   * Gets the number of lookups that had to compute the value.
+   *
+   * @return the miss count
+   * @since 4.1.0
+   */
+  public long misses() {
+    return this.misses;
+  }
+
+  /**
+   * Gets the number of values that were removed to stay within the size bound.
+   *
+   * @return the eviction count
+   * @since 4.1.0
+   */
+  public long evictions() {
+    return this.evictions;
+  }
+
+  /**
+   * Gets the ratio of lookups that found a cached value, {@code 1} if there were no lookups yet.
+   *
+   * @return the hit rate
+   * @since 4.1.0
+   */
+  public double hitRate() {
+    final long requests = this.hits + this.misses;
+    return requests == 0 ? 1.0 : (double) this.hits / requests;
+  }
+
+  @Override
+  public @NonNull Stream<? extends ExaminableProperty> examinableProperties() {
+    return Stream.of(
+      ExaminableProperty.of("hits", this.hits),
+      ExaminableProperty.of("misses", this.misses),
+      ExaminableProperty.of("evictions", this.evictions)
+    );
+  }
+
+  @Override
+  public String toString() {
+    return this.examine(StringExaminer.simpleEscaping());
+  }
+}
@@ -0,0 +1,80 @@
+/*
+ * This file is part of adventure-text-minimessage, licensed under the MIT License.
+ *
+ * Copyright (c) 2018-2020 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.adventure.text.minimessage;
+
+import net.kyori.adventure.text.Component;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.util.List;
+
+/**
+ * A message that has been compiled once by {@link MiniMessage#compile(String)} and can be rendered many times.
+ *
+ * <p>Markdown and lexing are done when compiling. Unless a {@link MiniMessage.Builder#placeholderResolver(java.util.function.Function)
+ * placeholder resolver} was set, the component rendered without templates is kept and returned by every later
+ * render that has no template for a tag of this message. Otherwise rendering only has to resolve tags and fill in
+ * templates. Compiled messages can be shared between threads.</p>
+ *
+ * <p>Unlike {@link MiniMessage#parse(String, Template...)}, the value of a {@link Template.StringTemplate} is not
+ * inserted into the raw input, but parsed on its own and inserted like a component template.</p>
+ *
+ * @since 4.1.0
+ */
+public interface CompiledMessage {
+
+  /**
+   * Gets the input this message was compiled from.
+   *
+   * @return the input message
+   * @since 4.1.0
+   */
+  @NonNull String input();
+
+  /**
+   * Renders this message without any templates.
+   *
+   * @return the output component
+   * @since 4.1.0
+   */
+  @NonNull Component render();
+
+  /**
+   * Renders this message, filling in the given templates.
+   *
+   * @param templates the templates
+   * @return the output component
+   * @since 4.1.0
+   */
+  @NonNull Component render(final @NonNull Template... templates);
+
+  /**
+   * Renders this message, filling in the given templates.
+   *
+   * @param templates the templates
+   * @return the output component
+   * @since 4.1.0
+   */
+  @NonNull Component render(final @NonNull List<Template> templates);
+}
@@ -0,0 +1,133 @@
+/*
+ * This file is part of adventure-text-minimessage, licensed under the MIT License.
+ *
+ * Copyright (c) 2018-2020 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.adventure.text.minimessage;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.minimessage.parser.TokenBuffer;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+final class CompiledMessageImpl implements CompiledMessage {
+  private static final Template[] EMPTY_TEMPLATES = new Template[0];
+
+  private final MiniMessageImpl miniMessage;
+  private final MiniMessageParser parser;
+  private final boolean strict;
+  private final String input;
+  private final TokenBuffer tokens;
+  // if the output without templates can be kept, only when no placeholder resolver is asked for unknown tags
+  private final boolean keepRendered;
+  // the output without templates, shared by every render that has no template for this message
+  private volatile @Nullable Component rendered;
+
+  CompiledMessageImpl(final @NonNull MiniMessageImpl miniMessage, final @NonNull MiniMessageParser parser, final boolean strict, final @NonNull String input, final @NonNull TokenBuffer tokens) {
+    this.miniMessage = miniMessage;
+    this.parser = parser;
+    this.strict = strict;
+    this.input = input;
+    this.tokens = tokens;
+    this.keepRendered = !parser.resolvesPlaceholders();
+  }
+
+  @Override
+  public @NonNull String input() {
+    return this.input;
+  }
+
+  @Override
+  public @NonNull Component render() {
+    if(!this.keepRendered) {
+      return this.parser.parseTokens(this.tokens, Collections.emptyMap(), Context.of(this.strict, this.input, this.miniMessage));
+    }
+    Component rendered = this.rendered;
+    if(rendered == null) {
+      // racing threads render equal components, so this doesn't need to be synchronized
+      rendered = this.parser.parseTokens(this.tokens, Collections.emptyMap(), Context.of(this.strict, this.input, this.miniMessage));
+      this.rendered = rendered;
+    }
+    return rendered;
+  }
+
+  @Override
+  public @NonNull Component render(final @NonNull Template... templates) {
+    if(!this.fills(Arrays.asList(templates))) {
+      return this.render();
+    }
+    final Map<String, Template.ComponentTemplate> map = new HashMap<>();
+    for(final Template template : templates) {
+      this.fill(map, template);
+    }
+    return this.parser.parseTokens(this.tokens, map, Context.of(this.strict, this.input, this.miniMessage, templates));
+  }
+
+  @Override
+  public @NonNull Component render(final @NonNull List<Template> templates) {
+    if(!this.fills(templates)) {
+      return this.render();
+    }
+    final Map<String, Template.ComponentTemplate> map = new HashMap<>();
+    for(final Template template : templates) {
+      this.fill(map, template);
+    }
+    return this.parser.parseTokens(this.tokens, map, Context.of(this.strict, this.input, this.miniMessage, templates.toArray(EMPTY_TEMPLATES)));
+  }
+
+  // templates are looked up by tag name, also in nested messages like hover text, so a template can only
+  // change the output if its key is part of the input
+  private boolean fills(final @NonNull List<Template> templates) {
+    for(final Template template : templates) {
+      final String key;
+      if(template instanceof Template.StringTemplate) {
+        key = ((Template.StringTemplate) template).key();
+      } else if(template instanceof Template.ComponentTemplate) {
+        key = ((Template.ComponentTemplate) template).key();
+      } else {
+        continue;
+      }
+      if(this.input.contains(key)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private void fill(final @NonNull Map<String, Template.ComponentTemplate> holes, final @NonNull Template template) {
+    if(template instanceof Template.StringTemplate) {
+      // the input was already lexed, so string values become a component of their own
+      final Template.StringTemplate stringTemplate = (Template.StringTemplate) template;
+      final Component value = this.parser.parseFormat(stringTemplate.value(), Context.of(this.strict, stringTemplate.value(), this.miniMessage));
+      holes.put(stringTemplate.key(), new Template.ComponentTemplate(stringTemplate.key(), value));
+    } else if(template instanceof Template.ComponentTemplate) {
+      final Template.ComponentTemplate componentTemplate = (Template.ComponentTemplate) template;
+      holes.put(componentTemplate.key(), componentTemplate);
+    }
+  }
+}
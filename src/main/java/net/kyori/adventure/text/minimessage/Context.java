@@ -24,12 +24,16 @@
 package net.kyori.adventure.text.minimessage;
 
 import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.format.TextColor;
 import net.kyori.adventure.text.minimessage.parser.Token;
 
 import org.checkerframework.checker.nullness.qual.NonNull;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Carries needed context for minimessage around, ranging from debug info to the configured minimessage instance.
@@ -44,6 +48,8 @@ public class Context {
   private String replacedMessage;
   private final MiniMessageImpl miniMessage;
   private final @NonNull Template @Nullable [] templates;
+  private int frames = 1;
+  private @Nullable Map<Component, TextColor[]> animated;
 
   Context(final boolean strict, final List<Token> tokens, final String ogMessage, final String replacedMessage, final MiniMessageImpl miniMessage, final @NonNull Template @Nullable [] templates) {
     this.strict = strict;
@@ -111,9 +117,22 @@ public class Context {
     return this.strict;
   }
 
+  /**
+   * Returns how far the colors of consecutive characters may differ to be grouped into one component,
+   * see {@link MiniMessage.Builder#groupColors(int)}.
+   *
+   * @return the tolerance, or {@code -1} if characters are not grouped
+   * @since 4.1.0
+   */
+  public int colorTolerance() {
+    return this.miniMessage == null ? -1 : this.miniMessage.colorTolerance();
+  }
+
   /**
    * Returns tokens.
    *
+   * <p>The token list is reused by later parses, so it is only valid while this message is being parsed.</p>
+   *
    * @return tokens
    * @since 4.1.0
    */
@@ -165,4 +184,49 @@ public class Context {
       return this.miniMessage.parse(message);
     }
   }
+
+  /**
+   * Returns the amount of frames that are parsed at once, see {@link MiniMessage#frames(String, int)}.
+   *
+   * @return the amount of frames, {@code 1} if a single component is parsed
+   * @since 4.1.0
+   */
+  public int frames() {
+    return this.frames;
+  }
+
+  /**
+   * Gives a component a different color in every frame.
+   *
+   * <p>Only has an effect if more than one frame is parsed. The component has to end up in the output as is,
+   * with the color of the first frame.</p>
+   *
+   * @param component the component
+   * @param colors the color of the component in every frame
+   * @since 4.1.0
+   */
+  public void animate(final @NonNull Component component, final @NonNull TextColor @NonNull [] colors) {
+    if(this.animated != null) {
+      this.animated.put(component, colors);
+    }
+  }
+
+  void frames(final int frames) {
+    this.frames = frames;
+    this.animated = new IdentityHashMap<>();
+  }
+
+  @NonNull Map<Component, TextColor[]> animated() {
+    return this.animated == null ? Collections.emptyMap() : this.animated;
+  }
+
+  // Moves the colors of an animated component to the component that replaced it in the output.
+  void replaced(final @NonNull Component before, final @NonNull Component after) {
+    if(this.animated != null && before != after) {
+      final TextColor[] colors = this.animated.remove(before);
+      if(colors != null) {
+        this.animated.put(after, colors);
+      }
+    }
+  }
 }
@@ -0,0 +1,79 @@
+/*
+ * This file is part of adventure-text-minimessage, licensed under the MIT License.
+ *
+ * Copyright (c) 2018-2020 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.adventure.text.minimessage;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.format.TextColor;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Builds the frames of an animation from the first frame and the colors of its animated components.
+ *
+ * <p>Only the components on the path to an animated component are copied, every other subtree is shared between all
+ * frames.</p>
+ */
+final class Frames {
+  private Frames() {
+  }
+
+  static @NonNull List<Component> build(final @NonNull Component first, final @NonNull Map<Component, TextColor[]> animated, final int count) {
+    if(animated.isEmpty()) {
+      return Collections.nCopies(count, first);
+    }
+    final List<Component> frames = new ArrayList<>(count);
+    frames.add(first);
+    for(int frame = 1; frame < count; frame++) {
+      frames.add(frame(first, animated, frame));
+    }
+    return Collections.unmodifiableList(frames);
+  }
+
+  private static @NonNull Component frame(final @NonNull Component component, final @NonNull Map<Component, TextColor[]> animated, final int frame) {
+    final List<Component> children = component.children();
+    List<Component> changed = null;
+    for(int i = 0; i < children.size(); i++) {
+      final Component child = children.get(i);
+      final Component next = frame(child, animated, frame);
+      if(changed == null && next != child) {
+        changed = new ArrayList<>(children.subList(0, i));
+      }
+      if(changed != null) {
+        changed.add(next);
+      }
+    }
+
+    final TextColor[] colors = animated.get(component);
+    Component result = colors == null ? component : component.color(colors[frame]);
+    if(changed != null) {
+      result = result.children(changed);
+    }
+    return result;
+  }
+}
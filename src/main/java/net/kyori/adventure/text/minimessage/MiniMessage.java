@@ -34,6 +34,7 @@ import net.kyori.adventure.util.Buildable;
 
 import org.checkerframework.checker.nullness.qual.NonNull;
 
+import java.io.Reader;
 import java.util.List;
 import java.util.Map;
 import java.util.function.Consumer;
@@ -153,6 +154,60 @@ public interface MiniMessage extends ComponentSerializer<Component, Component, S
     return this.deserialize(input);
   }
 
+  /**
+   * Parses a char sequence into an component, without copying it into a string first.
+   *
+   * <p>Useful for large inputs, like a {@link java.nio.CharBuffer} over a memory mapped file.
+   * With markdown enabled, the input is copied into a string anyway. Parse results of inputs that aren't strings are not cached.</p>
+   *
+   * @param input the input char sequence
+   * @return the output component
+   * @since 4.1.0
+   */
+  @NonNull Component parse(final @NonNull CharSequence input);
+
+  /**
+   * Parses everything a reader returns into an component, without reading it into a string first.
+   *
+   * <p>With markdown enabled, the input is read into a string anyway. The reader is not closed.</p>
+   *
+   * @param input the input reader
+   * @return the output component
+   * @throws java.io.UncheckedIOException if reading fails
+   * @since 4.1.0
+   */
+  @NonNull Component parse(final @NonNull Reader input);
+
+  /**
+   * Parses a message into the frames of an animation.
+   *
+   * <p>Every frame shifts the phase of each gradient and rainbow a bit further, so that cycling through the frames
+   * moves their colors along the text and the frame after the last one would be the first one again. The first frame
+   * is equal to {@link #parse(String)}.</p>
+   *
+   * <p>The message is only parsed once, frames share every component that is not colored by a gradient or rainbow.
+   * Gradients and rainbows inside of hover events are not animated.</p>
+   *
+   * @param input the input string
+   * @param frames the amount of frames
+   * @return an unmodifiable list of the frames
+   * @throws IllegalArgumentException if {@code frames} is less than {@code 1}
+   * @since 4.1.0
+   */
+  @NonNull List<Component> frames(final @NonNull String input, final int frames);
+
+  /**
+   * Serializes a component into an appendable, without building a string first.
+   *
+   * <p>The appendable is neither flushed nor closed.</p>
+   *
+   * @param component the component
+   * @param output the appendable to write to
+   * @throws java.io.UncheckedIOException if writing fails
+   * @since 4.1.0
+   */
+  void serialize(final @NonNull Component component, final @NonNull Appendable output);
+
   /**
    * Parses a string into an component, allows passing placeholders in key value pairs.
    *
@@ -205,6 +260,17 @@ public interface MiniMessage extends ComponentSerializer<Component, Component, S
    */
   @NonNull Component parse(final @NonNull String input, final @NonNull List<Template> placeholders);
 
+  /**
+   * Compiles a string into a reusable message that can be rendered with different templates.
+   *
+   * <p>Useful for messages that are parsed very often, like messages loaded from a config.</p>
+   *
+   * @param input the input string
+   * @return the compiled message
+   * @since 4.1.0
+   */
+  @NonNull CompiledMessage compile(final @NonNull String input);
+
   /**
    * Creates a new {@link MiniMessage.Builder}.
    *
@@ -298,6 +364,81 @@ public interface MiniMessage extends ComponentSerializer<Component, Component, S
      */
     @NonNull Builder parsingErrorMessageConsumer(final Consumer<List<String>> consumer);
 
+    /**
+     * Caches the results of {@link MiniMessage#parse(String)} in the given cache (disabled by default).
+     * <br>
+     * Only use this if your placeholder resolver always returns the same result for the same name.
+     *
+     * @param cache the cache to use
+     * @return this builder
+     * @since 4.1.0
+     */
+    @NonNull Builder cache(final @NonNull ParseCache cache);
+
+    /**
+     * Caches the results of {@link MiniMessage#serialize(Component)} in the given cache (disabled by default).
+     * <br>
+     * Only use this if the serialized components are not mutated after they were serialized.
+     *
+     * @param cache the cache to use
+     * @return this builder
+     * @since 4.1.0
+     */
+    @NonNull Builder serializeCache(final @NonNull SerializeCache cache);
+
+    /**
+     * Sets how lexers and parser state are reused between parses.
+     * <br>
+     * By default, every thread reuses its own state, see {@link ParseSessionPool#threadLocal()}.
+     *
+     * @param sessionPool the pooling strategy
+     * @return this builder
+     * @since 4.1.0
+     */
+    @NonNull Builder sessionPool(final @NonNull ParseSessionPool sessionPool);
+
+    /**
+     * Allows to enable streaming parses (disabled by default).
+     * <br>
+     * When streaming, the parser asks the lexer for tokens as it needs them and drops them once the tag they belong to
+     * is parsed, instead of lexing the whole input first. This keeps the memory needed for large inputs low.
+     * {@link Context#tokens()} is empty while streaming, and in strict mode a lexing error may only be
+     * reported after errors in the input before it.
+     *
+     * @param streaming if streaming should be enabled
+     * @return this builder
+     * @since 4.1.0
+     */
+    @NonNull Builder streaming(final boolean streaming);
+
+    /**
+     * Allows to use a hand-written lexer instead of the generated one (disabled by default).
+     * <br>
+     * Both lexers create the same tokens, the hand-written one is faster on mostly ASCII input.
+     * Input from a {@link Reader} is always lexed by the generated lexer.
+     *
+     * @param tableLexer if the hand-written lexer should be used
+     * @return this builder
+     * @since 4.1.0
+     */
+    @NonNull Builder tableLexer(final boolean tableLexer);
+
+    /**
+     * Allows gradients and rainbows to put consecutive characters of similar colors into one component
+     * (disabled by default).
+     * <br>
+     * With a tolerance of {@code 0}, only characters of the same color are grouped, which does not change how the
+     * text looks. With a higher tolerance, characters whose red, green and blue channels each differ by at most that
+     * much from the first character of a group join it and take its color. This results in fewer components, at the
+     * cost of a less smooth color transition.
+     *
+     * @param tolerance the tolerance from {@code 0} to {@code 255}, or {@code -1} to create one component per character
+     * @return this builder
+     * @throws IllegalArgumentException if the tolerance is out of range
+     * @since 4.1.0
+     */
+    @NonNull Builder groupColors(final int tolerance);
+
     /**
      * Builds the serializer.
      *
@@ -26,16 +26,22 @@ package net.kyori.adventure.text.minimessage;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.ComponentLike;
 import net.kyori.adventure.text.minimessage.markdown.MarkdownFlavor;
+import net.kyori.adventure.text.minimessage.markdown.MarkdownTable;
 import net.kyori.adventure.text.minimessage.markdown.MiniMarkdownParser;
 import net.kyori.adventure.text.minimessage.transformation.Transformation;
 import net.kyori.adventure.text.minimessage.transformation.TransformationRegistry;
 import net.kyori.adventure.text.minimessage.transformation.TransformationType;
 
 import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.function.Consumer;
 import java.util.function.Function;
 
@@ -48,6 +54,7 @@ public class MiniMessageImpl implements MiniMessage {
 
   static final Function<String, ComponentLike> DEFAULT_PLACEHOLDER_RESOLVER = s -> null;
   static final Consumer<List<String>> DEFAULT_ERROR_CONSUMER = message -> message.forEach(System.out::println);
+  static final ParseSessionPool DEFAULT_SESSION_POOL = ParseSessionPool.threadLocal();
 
   static final MiniMessage INSTANCE = new MiniMessageImpl(false, MarkdownFlavor.defaultFlavor(), new TransformationRegistry(), DEFAULT_PLACEHOLDER_RESOLVER, false, DEFAULT_ERROR_CONSUMER);
   static final MiniMessage MARKDOWN = new MiniMessageImpl(true, MarkdownFlavor.defaultFlavor(), new TransformationRegistry(), DEFAULT_PLACEHOLDER_RESOLVER, false, DEFAULT_ERROR_CONSUMER);
@@ -57,42 +64,151 @@ public class MiniMessageImpl implements MiniMessage {
   private final MiniMessageParser parser;
   private final boolean strict;
   private final Consumer<List<String>> parsingErrorMessageConsumer;
+  private final @Nullable ParseCache cache;
+  private final @Nullable Fingerprint fingerprint;
+  private final @Nullable SerializeCache serializeCache;
+  private final int colorTolerance;
+  private final ParseSessionPool sessionPool;
+  private final boolean streaming;
+  private final boolean tableLexer;
 
   MiniMessageImpl(final boolean markdown, final @NonNull MarkdownFlavor markdownFlavor, final @NonNull TransformationRegistry registry, final @NonNull Function<String, ComponentLike> placeholderResolver, final boolean strict, final @NonNull Consumer<List<String>> parsingErrorMessageConsumer) {
+    this(markdown, markdownFlavor, registry, placeholderResolver, strict, parsingErrorMessageConsumer, null, null, DEFAULT_SESSION_POOL, false, false, -1);
+  }
+
+  MiniMessageImpl(final boolean markdown, final @NonNull MarkdownFlavor markdownFlavor, final @NonNull TransformationRegistry registry, final @NonNull Function<String, ComponentLike> placeholderResolver, final boolean strict, final @NonNull Consumer<List<String>> parsingErrorMessageConsumer, final @Nullable ParseCache cache, final @Nullable SerializeCache serializeCache, final @NonNull ParseSessionPool sessionPool, final boolean streaming, final boolean tableLexer, final int colorTolerance) {
     this.markdown = markdown;
     this.markdownFlavor = markdownFlavor;
-    this.parser = new MiniMessageParser(registry, placeholderResolver);
+    this.parser = new MiniMessageParser(registry, placeholderResolver, sessionPool, streaming, tableLexer);
+    this.sessionPool = sessionPool;
+    this.streaming = streaming;
+    this.tableLexer = tableLexer;
     this.strict = strict;
     this.parsingErrorMessageConsumer = parsingErrorMessageConsumer;
+    this.cache = cache;
+    // everything that can change the parse result, so differently configured instances never share cache entries
+    this.fingerprint = cache == null ? null : new Fingerprint(markdown, markdownFlavor, new ArrayList<>(registry.types()), placeholderResolver, strict, colorTolerance);
+    this.serializeCache = serializeCache;
+    this.colorTolerance = colorTolerance;
   }
 
   @Override
-  public @NonNull Component deserialize(@NonNull String input) {
+  public @NonNull Component deserialize(final @NonNull String input) {
+    if(this.isPlainText(input)) {
+      // nothing to lex or transform, so skip the parser entirely
+      return Component.text(input);
+    }
+    if(this.cache != null) {
+      return this.cache.get(this.fingerprint, input, this::deserialize0);
+    }
+    return this.deserialize0(input);
+  }
+
+  private boolean isPlainText(final @NonNull String input) {
+    // indexOf is an intrinsic, three of them are cheaper than one loop checking every char
+    if(input.indexOf('<') != -1 || input.indexOf('>') != -1 || input.indexOf('\\') != -1) {
+      return false;
+    }
+    if(this.markdown) {
+      final MarkdownTable table = MarkdownTable.of(this.markdownFlavor);
+      for(int i = 0; i < input.length(); i++) {
+        final char c = input.charAt(i);
+        final char n = i < input.length() - 1 ? input.charAt(i + 1) : ' ';
+        if(table.decoration(c, n) != MarkdownTable.NONE) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
+  private @NonNull Component deserialize0(final @NonNull String input) {
     if(this.markdown) {
-      input = MiniMarkdownParser.parse(input, this.markdownFlavor);
+      // markdown is lexed together with the tags, without translating it into tags first
+      return this.parser.parseFormat(input, this.markdownFlavor, Context.of(this.strict, input, this));
     }
     return this.parser.parseFormat(input, Context.of(this.strict, input, this));
   }
 
   @Override
-  public @NonNull String serialize(final @NonNull Component component) {
-    return MiniMessageSerializer.serialize(component);
+  public @NonNull Component parse(final @NonNull CharSequence input) {
+    if(input instanceof String || this.markdown) {
+      return this.deserialize(input.toString());
+    }
+    return this.parser.parseFormat(input, Context.of(this.strict, null, this));
   }
 
   @Override
-  public @NonNull Component parse(@NonNull String input, final @NonNull String... placeholders) {
+  public @NonNull Component parse(final @NonNull Reader input) {
     if(this.markdown) {
-      input = MiniMarkdownParser.parse(input, this.markdownFlavor);
+      return this.deserialize(read(input));
     }
-    return this.parser.parseFormat(input, Context.of(this.strict, input, this), placeholders);
+    return this.parser.parseFormat(input, Context.of(this.strict, null, this));
   }
 
   @Override
-  public @NonNull Component parse(@NonNull String input, final @NonNull Map<String, String> placeholders) {
+  public @NonNull List<Component> frames(final @NonNull String input, final int frames) {
+    if(frames < 1) {
+      throw new IllegalArgumentException("frames must be positive, was " + frames);
+    }
+    final Context context = Context.of(this.strict, input, this);
+    context.frames(frames);
+    final Component first;
     if(this.markdown) {
-      input = MiniMarkdownParser.parse(input, this.markdownFlavor);
+      first = this.parser.parseFormat(input, this.markdownFlavor, context);
+    } else {
+      first = this.parser.parseFormat(input, context);
+    }
+    return Frames.build(first, context.animated(), frames);
+  }
+
+  private static @NonNull String read(final @NonNull Reader input) {
+    final StringBuilder builder = new StringBuilder();
+    final char[] buffer = new char[8192];
+    try {
+      int read;
+      while((read = input.read(buffer)) != -1) {
+        builder.append(buffer, 0, read);
+      }
+    } catch(final IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return builder.toString();
+  }
+
+  @Override
+  public @NonNull String serialize(final @NonNull Component component) {
+    if(this.serializeCache != null) {
+      return this.serializeCache.get(component, this::serialize0);
     }
-    return this.parser.parseFormat(input, placeholders, Context.of(this.strict, input, this));
+    return MiniMessageSerializer.serialize(component);
+  }
+
+  @Override
+  public void serialize(final @NonNull Component component, final @NonNull Appendable output) {
+    if(this.serializeCache != null) {
+      try {
+        output.append(this.serializeCache.get(component, this::serialize0));
+      } catch(final IOException e) {
+        throw new UncheckedIOException(e);
+      }
+      return;
+    }
+    MiniMessageSerializer.serialize(component, output, null);
+  }
+
+  private @NonNull String serialize0(final @NonNull Component component) {
+    return MiniMessageSerializer.serialize(component, this.serializeCache);
+  }
+
+  @Override
+  public @NonNull Component parse(final @NonNull String input, final @NonNull String... placeholders) {
+    return this.parser.parseFormat(input, this.markdownFlavor(), Context.of(this.strict, input, this), placeholders);
+  }
+
+  @Override
+  public @NonNull Component parse(final @NonNull String input, final @NonNull Map<String, String> placeholders) {
+    return this.parser.parseFormat(input, placeholders, this.markdownFlavor(), Context.of(this.strict, input, this));
   }
 
   @Override
@@ -134,19 +250,26 @@ public class MiniMessageImpl implements MiniMessage {
   }
 
   @Override
-  public @NonNull Component parse(@NonNull String input, final @NonNull Template... placeholders) {
-    if(this.markdown) {
-      input = MiniMarkdownParser.parse(input, this.markdownFlavor);
-    }
-    return this.parser.parseFormat(input, Context.of(this.strict, input, this, placeholders), placeholders);
+  public @NonNull Component parse(final @NonNull String input, final @NonNull Template... placeholders) {
+    return this.parser.parseFormat(input, this.markdownFlavor(), Context.of(this.strict, input, this, placeholders), placeholders);
   }
 
   @Override
-  public @NonNull Component parse(@NonNull String input, final @NonNull List<Template> placeholders) {
+  public @NonNull Component parse(final @NonNull String input, final @NonNull List<Template> placeholders) {
+    return this.parser.parseFormat(input, placeholders, this.markdownFlavor(), Context.of(this.strict, input, this));
+  }
+
+  // the flavor to lex markdown with, or null if this instance doesn't use markdown
+  private @Nullable MarkdownFlavor markdownFlavor() {
+    return this.markdown ? this.markdownFlavor : null;
+  }
+
+  @Override
+  public @NonNull CompiledMessage compile(final @NonNull String input) {
     if(this.markdown) {
-      input = MiniMarkdownParser.parse(input, this.markdownFlavor);
+      return new CompiledMessageImpl(this, this.parser, this.strict, input, this.parser.tokenize(input, this.markdownFlavor, Context.of(this.strict, input, this)));
     }
-    return this.parser.parseFormat(input, placeholders, Context.of(this.strict, input, this));
+    return new CompiledMessageImpl(this, this.parser, this.strict, input, this.parser.tokenize(input, Context.of(this.strict, input, this)));
   }
 
   @Override
@@ -177,6 +300,50 @@ public class MiniMessageImpl implements MiniMessage {
     return new BuilderImpl(this);
   }
 
+  int colorTolerance() {
+    return this.colorTolerance;
+  }
+
+  // the configuration a parse result depends on, hashed once instead of on every cache lookup
+  private static final class Fingerprint {
+    private final boolean markdown;
+    private final MarkdownFlavor markdownFlavor;
+    private final List<TransformationType<? extends Transformation>> types;
+    private final Function<String, ComponentLike> placeholderResolver;
+    private final boolean strict;
+    private final int colorTolerance;
+    private final int hash;
+
+    Fingerprint(final boolean markdown, final @NonNull MarkdownFlavor markdownFlavor, final @NonNull List<TransformationType<? extends Transformation>> types, final @NonNull Function<String, ComponentLike> placeholderResolver, final boolean strict, final int colorTolerance) {
+      this.markdown = markdown;
+      this.markdownFlavor = markdownFlavor;
+      this.types = types;
+      this.placeholderResolver = placeholderResolver;
+      this.strict = strict;
+      this.colorTolerance = colorTolerance;
+      this.hash = Objects.hash(markdown, markdownFlavor, types, placeholderResolver, strict, colorTolerance);
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+      if(this == other) return true;
+      if(!(other instanceof Fingerprint)) return false;
+      final Fingerprint that = (Fingerprint) other;
+      return this.hash == that.hash
+        && this.markdown == that.markdown
+        && this.strict == that.strict
+        && this.colorTolerance == that.colorTolerance
+        && this.markdownFlavor.equals(that.markdownFlavor)
+        && this.placeholderResolver.equals(that.placeholderResolver)
+        && this.types.equals(that.types);
+    }
+
+    @Override
+    public int hashCode() {
+      return this.hash;
+    }
+  }
+
   /* package */ static final class BuilderImpl implements Builder {
     private boolean markdown = false;
     private MarkdownFlavor markdownFlavor = MarkdownFlavor.defaultFlavor();
@@ -184,12 +351,24 @@ public class MiniMessageImpl implements MiniMessage {
     private Function<String, ComponentLike> placeholderResolver = DEFAULT_PLACEHOLDER_RESOLVER;
     private boolean strict = false;
     private Consumer<List<String>> parsingErrorMessageConsumer = DEFAULT_ERROR_CONSUMER;
+    private ParseCache cache = null;
+    private SerializeCache serializeCache = null;
+    private ParseSessionPool sessionPool = DEFAULT_SESSION_POOL;
+    private boolean streaming = false;
+    private boolean tableLexer = false;
+    private int colorTolerance = -1;
 
     BuilderImpl() {
     }
 
     BuilderImpl(final MiniMessageImpl serializer) {
       this.markdown = serializer.markdown;
+      this.cache = serializer.cache;
+      this.serializeCache = serializer.serializeCache;
+      this.sessionPool = serializer.sessionPool;
+      this.streaming = serializer.streaming;
+      this.tableLexer = serializer.tableLexer;
+      this.colorTolerance = serializer.colorTolerance;
     }
 
     @Override
@@ -243,12 +422,51 @@ public class MiniMessageImpl implements MiniMessage {
       return this;
     }
 
+    @Override
+    public @NonNull Builder cache(final @NonNull ParseCache cache) {
+      this.cache = cache;
+      return this;
+    }
+
+    @Override
+    public @NonNull Builder serializeCache(final @NonNull SerializeCache cache) {
+      this.serializeCache = cache;
+      return this;
+    }
+
+    @Override
+    public @NonNull Builder sessionPool(final @NonNull ParseSessionPool sessionPool) {
+      this.sessionPool = sessionPool;
+      return this;
+    }
+
+    @Override
+    public @NonNull Builder streaming(final boolean streaming) {
+      this.streaming = streaming;
+      return this;
+    }
+
+    @Override
+    public @NonNull Builder tableLexer(final boolean tableLexer) {
+      this.tableLexer = tableLexer;
+      return this;
+    }
+
+    @Override
+    public @NonNull Builder groupColors(final int tolerance) {
+      if(tolerance < -1 || tolerance > 255) {
+        throw new IllegalArgumentException("tolerance must be between -1 and 255, was " + tolerance);
+      }
+      this.colorTolerance = tolerance;
+      return this;
+    }
+
     @Override
     public @NonNull MiniMessage build() {
       if(this.markdown) {
-        return new MiniMessageImpl(true, this.markdownFlavor, this.registry, this.placeholderResolver, this.strict, this.parsingErrorMessageConsumer);
+        return new MiniMessageImpl(true, this.markdownFlavor, this.registry, this.placeholderResolver, this.strict, this.parsingErrorMessageConsumer, this.cache, this.serializeCache, this.sessionPool, this.streaming, this.tableLexer, this.colorTolerance);
       } else {
-        return new MiniMessageImpl(false, MarkdownFlavor.defaultFlavor(), this.registry, this.placeholderResolver, this.strict, this.parsingErrorMessageConsumer);
+        return new MiniMessageImpl(false, MarkdownFlavor.defaultFlavor(), this.registry, this.placeholderResolver, this.strict, this.parsingErrorMessageConsumer, this.cache, this.serializeCache, this.sessionPool, this.streaming, this.tableLexer, this.colorTolerance);
       }
     }
   }
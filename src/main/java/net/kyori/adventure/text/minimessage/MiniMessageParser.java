@@ -23,13 +23,15 @@
  */
 package net.kyori.adventure.text.minimessage;
 
-import java.util.Deque;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.ComponentLike;
 import net.kyori.adventure.text.TextComponent;
-import net.kyori.adventure.text.minimessage.parser.MiniMessageLexer;
+import net.kyori.adventure.text.format.Style;
+import net.kyori.adventure.text.minimessage.markdown.MarkdownFlavor;
 import net.kyori.adventure.text.minimessage.parser.ParsingException;
+import net.kyori.adventure.text.minimessage.parser.TableDrivenLexer;
 import net.kyori.adventure.text.minimessage.parser.Token;
+import net.kyori.adventure.text.minimessage.parser.TokenBuffer;
 import net.kyori.adventure.text.minimessage.parser.TokenType;
 import net.kyori.adventure.text.minimessage.transformation.Inserting;
 import net.kyori.adventure.text.minimessage.transformation.InstantApplyTransformation;
@@ -39,19 +41,20 @@ import net.kyori.adventure.text.minimessage.transformation.TransformationRegistr
 import net.kyori.adventure.text.minimessage.transformation.inbuild.PreTransformation;
 
 import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
-import java.io.IOException;
-import java.util.ArrayDeque;
+import java.io.Reader;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.function.Function;
 import java.util.function.Predicate;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 import static net.kyori.adventure.text.minimessage.Tokens.PRE;
 import static net.kyori.adventure.text.minimessage.Tokens.TAG_END;
@@ -59,139 +62,358 @@ import static net.kyori.adventure.text.minimessage.Tokens.TAG_START;
 
 class MiniMessageParser {
 
-  // regex group names
-  private static final String START = "start";
-  private static final String TOKEN = "token";
-  private static final String INNER = "inner";
-  private static final String END = "end";
-  // https://regex101.com/r/8VZ7uA/10
-  private static final Pattern pattern = Pattern.compile("((?<start><)(?<token>[^<>]+(:(?<inner>['\"]?([^'\"](\\\\['\"])?)+['\"]?))*)(?<end>>))+?");
-
   private final TransformationRegistry registry;
   private final Function<String, ComponentLike> placeholderResolver;
+  private final ParseSessionPool sessionPool;
+  private final boolean streaming;
+  private final boolean tableLexer;
 
   MiniMessageParser() {
     this.registry = new TransformationRegistry();
     this.placeholderResolver = MiniMessageImpl.DEFAULT_PLACEHOLDER_RESOLVER;
+    this.sessionPool = MiniMessageImpl.DEFAULT_SESSION_POOL;
+    this.streaming = false;
+    this.tableLexer = false;
   }
 
-  MiniMessageParser(final TransformationRegistry registry, final Function<String, ComponentLike> placeholderResolver) {
+  MiniMessageParser(final TransformationRegistry registry, final Function<String, ComponentLike> placeholderResolver, final ParseSessionPool sessionPool, final boolean streaming, final boolean tableLexer) {
     this.registry = registry;
     this.placeholderResolver = placeholderResolver;
+    this.sessionPool = sessionPool;
+    this.streaming = streaming;
+    this.tableLexer = tableLexer;
   }
 
-  @NonNull String escapeTokens(final @NonNull String richMessage) {
-    final StringBuilder sb = new StringBuilder();
-    final Matcher matcher = pattern.matcher(richMessage);
-    int lastEnd = 0;
-    while(matcher.find()) {
-      final int startIndex = matcher.start();
-      final int endIndex = matcher.end();
-
-      if(startIndex > lastEnd) {
-        sb.append(richMessage, lastEnd, startIndex);
-      }
-      lastEnd = endIndex;
-
-      final String start = matcher.group(START);
-      String token = matcher.group(TOKEN);
-      final String inner = matcher.group(INNER);
-      final String end = matcher.group(END);
-
-      // also escape inner
-      if(inner != null) {
-        token = token.replace(inner, this.escapeTokens(inner));
-      }
+  // a custom resolver can answer differently every time it is asked, so its output can't be kept
+  boolean resolvesPlaceholders() {
+    return this.placeholderResolver != MiniMessageImpl.DEFAULT_PLACEHOLDER_RESOLVER;
+  }
 
-      sb.append("\\").append(start).append(token).append(end);
+  @NonNull String escapeTokens(final @NonNull String richMessage) {
+    final StringBuilder sb = new StringBuilder(richMessage.length() + 16);
+    final ParseSession session = this.sessionPool.acquire();
+    try {
+      escapeTokens(richMessage, session.tokens(richMessage, Context.of(false, richMessage, null), true, false), sb);
+    } finally {
+      this.sessionPool.release(session);
     }
+    return sb.toString();
+  }
 
-    if(richMessage.length() > lastEnd) {
-      sb.append(richMessage.substring(lastEnd));
+  @NonNull String stripTokens(final @NonNull String richMessage) {
+    final StringBuilder sb = new StringBuilder(richMessage.length());
+    final ParseSession session = this.sessionPool.acquire();
+    try {
+      final TokenBuffer tokens = session.tokens(richMessage, Context.of(false, richMessage, null), true, false);
+      int last = 0;
+      for(int i = 0; i < tokens.size(); i++) {
+        final int end = tagEnd(richMessage, tokens, i);
+        if(end != -1) {
+          sb.append(richMessage, last, tagOpen(tokens, i));
+          last = tokens.end(end);
+          i = end;
+        }
+      }
+      sb.append(richMessage, last, richMessage.length());
+    } finally {
+      this.sessionPool.release(session);
     }
-
     return sb.toString();
   }
 
-  @NonNull String stripTokens(final @NonNull String richMessage) {
-    final StringBuilder sb = new StringBuilder();
-    final Matcher matcher = pattern.matcher(richMessage);
-    int lastEnd = 0;
-    while(matcher.find()) {
-      final int startIndex = matcher.start();
-      final int endIndex = matcher.end();
+  /**
+   * Escapes every tag of the lexed input into the builder, in one pass over the tokens.
+   *
+   * <p>Quoted tag arguments can hold tags of their own, those are lexed and escaped as a nested input.</p>
+   *
+   * @param input the input
+   * @param tokens the tokens of the input
+   * @param sb the builder to write to
+   */
+  private static void escapeTokens(final @NonNull CharSequence input, final @NonNull TokenBuffer tokens, final @NonNull StringBuilder sb) {
+    escapeTokens(input, tokens, 0, input.length(), sb, Context.of(false, null, null), new ArrayList<>(), 0);
+  }
 
-      if(startIndex > lastEnd) {
-        sb.append(richMessage, lastEnd, startIndex);
+  // nested arguments are lexed in place by one lexer per depth, the tokens of the outer ones are still in use
+  private static void escapeTokens(final @NonNull CharSequence input, final @NonNull TokenBuffer tokens, final int start, final int stop, final @NonNull StringBuilder sb, final @NonNull Context context, final @NonNull List<TableDrivenLexer> lexers, final int depth) {
+    int last = start;
+    for(int i = 0; i < tokens.size(); i++) {
+      final int end = tagEnd(input, tokens, i);
+      if(end == -1) {
+        continue;
       }
-      lastEnd = endIndex;
+      final int open = tagOpen(tokens, i);
+      sb.append(input, last, open).append('\\');
+      last = open;
+      for(int j = i + 1; j < end; j++) {
+        final TokenType type = tokens.type(j);
+        if(type == TokenType.SINGLE_QUOTE_START || type == TokenType.DOUBLE_QUOTE_START) {
+          final int contentStart = tokens.end(j);
+          while(tokens.type(j) != TokenType.SINGLE_QUOTE_END && tokens.type(j) != TokenType.DOUBLE_QUOTE_END) {
+            j++;
+          }
+          final int contentEnd = tokens.start(j);
+          sb.append(input, last, contentStart);
+          if(contentEnd > contentStart) {
+            if(lexers.size() == depth) {
+              lexers.add(new TableDrivenLexer());
+            }
+            final TableDrivenLexer lexer = lexers.get(depth);
+            lexer.reset(input, contentStart, contentEnd, context);
+            lexer.scan();
+            escapeTokens(input, lexer.buffer(), contentStart, contentEnd, sb, context, lexers, depth + 1);
+          }
+          last = contentEnd;
+        }
+      }
+      sb.append(input, last, tokens.end(end));
+      last = tokens.end(end);
+      i = end;
     }
+    sb.append(input, last, stop);
+  }
 
-    if(richMessage.length() > lastEnd) {
-      sb.append(richMessage.substring(lastEnd));
-    }
+  private static int tagOpen(final @NonNull TokenBuffer tokens, final int index) {
+    final TokenType type = tokens.type(index);
+    // the position of an escaped tag includes the backslash
+    return type == TokenType.ESCAPED_OPEN_TAG_START || type == TokenType.ESCAPED_CLOSE_TAG_START ? tokens.start(index) + 1 : tokens.start(index);
+  }
 
-    return sb.toString();
+  /**
+   * Finds the end of the tag starting at the given token.
+   *
+   * <p>A tag needs at least one character between its brackets and can't contain a {@code <} outside of quotes.</p>
+   *
+   * @param input the input
+   * @param tokens the tokens of the input
+   * @param index the index of the token the tag might start at
+   * @return the index of the tag end token, or -1 if no complete tag starts at the token
+   */
+  private static int tagEnd(final @NonNull CharSequence input, final @NonNull TokenBuffer tokens, final int index) {
+    switch(tokens.type(index)) {
+      case OPEN_TAG_START:
+      case CLOSE_TAG_START:
+      case ESCAPED_OPEN_TAG_START:
+      case ESCAPED_CLOSE_TAG_START:
+        break;
+      default:
+        return -1;
+    }
+    boolean quoted = false;
+    for(int i = index + 1; i < tokens.size(); i++) {
+      switch(tokens.type(i)) {
+        case TAG_END:
+          return tokens.start(i) > tagOpen(tokens, index) + 1 ? i : -1;
+        case SINGLE_QUOTE_START:
+        case DOUBLE_QUOTE_START:
+          quoted = true;
+          break;
+        case SINGLE_QUOTE_END:
+        case DOUBLE_QUOTE_END:
+          quoted = false;
+          break;
+        case NAME:
+        case STRING:
+          if(!quoted) {
+            for(int j = tokens.start(i); j < tokens.end(i); j++) {
+              if(input.charAt(j) == '<') {
+                return -1;
+              }
+            }
+          }
+          break;
+        case PARAM_SEPARATOR:
+          break;
+        default:
+          return -1;
+      }
+    }
+    return -1;
   }
 
   @NonNull String sanitizePlaceholder(final String input) {
     return input.replace("</pre>", "\\</pre>");
   }
 
-  @NonNull String handlePlaceholders(@NonNull String richMessage, final @NonNull Context context, final @NonNull String... placeholders) {
+  @NonNull String handlePlaceholders(final @NonNull String richMessage, final @NonNull Context context, final @NonNull String... placeholders) {
+    return this.handlePlaceholders(richMessage, context, null, placeholders);
+  }
+
+  private @NonNull String handlePlaceholders(@NonNull String richMessage, final @NonNull Context context, final @Nullable BitSet inserted, final @NonNull String... placeholders) {
     if(placeholders.length % 2 != 0) {
       throw new ParseException(
         "Invalid number placeholders defined, usage: parseFormat(format, key, value, key, value...)");
     }
+    final Map<String, String> replacements = new LinkedHashMap<>();
     for(int i = 0; i < placeholders.length; i += 2) {
-      richMessage = richMessage.replace(TAG_START + placeholders[i] + TAG_END, this.sanitizePlaceholder(placeholders[i + 1]));
+      replacements.putIfAbsent(placeholders[i], this.sanitizePlaceholder(placeholders[i + 1]));
     }
+    richMessage = replacePlaceholders(richMessage, replacements, inserted);
     context.replacedMessage(richMessage);
     return richMessage;
   }
 
-  @NonNull String handlePlaceholders(@NonNull String richMessage, final @NonNull Context context, final @NonNull Map<String, String> placeholders) {
-    for(final Map.Entry<String, String> entry : placeholders.entrySet()) {
-      richMessage = richMessage.replace(TAG_START + entry.getKey() + TAG_END, entry.getValue());
-    }
+  @NonNull String handlePlaceholders(final @NonNull String richMessage, final @NonNull Context context, final @NonNull Map<String, String> placeholders) {
+    return this.handlePlaceholders(richMessage, context, placeholders, null);
+  }
+
+  private @NonNull String handlePlaceholders(@NonNull String richMessage, final @NonNull Context context, final @NonNull Map<String, String> placeholders, final @Nullable BitSet inserted) {
+    richMessage = replacePlaceholders(richMessage, placeholders, inserted);
     context.replacedMessage(richMessage);
     return richMessage;
   }
 
-  @NonNull Component parseFormat(final @NonNull String richMessage, final @NonNull Context context, final @NonNull String... placeholders) {
-    return this.parseFormat(this.handlePlaceholders(richMessage, context, placeholders), context);
+  /**
+   * Replaces every {@code <key>} in the input with the value for that key, in a single pass.
+   *
+   * <p>Replaced values are not scanned again, so a value can't insert another placeholder.</p>
+   *
+   * @param input the input
+   * @param replacements values by key, in the order they were given
+   * @return the input with placeholders replaced
+   */
+  static @NonNull String replacePlaceholders(final @NonNull String input, final @NonNull Map<String, String> replacements) {
+    return replacePlaceholders(input, replacements, null);
+  }
+
+  /**
+   * Replaces every {@code <key>} in the input with the value for that key, in a single pass.
+   *
+   * <p>Replaced values are not scanned again, so a value can't insert another placeholder.</p>
+   *
+   * @param input the input
+   * @param replacements values by key, in the order they were given
+   * @param inserted set to the indices of the output that were inserted from values, if not null
+   * @return the input with placeholders replaced
+   */
+  static @NonNull String replacePlaceholders(final @NonNull String input, final @NonNull Map<String, String> replacements, final @Nullable BitSet inserted) {
+    if(replacements.isEmpty()) {
+      return input;
+    }
+    int minLength = Integer.MAX_VALUE;
+    int maxLength = 0;
+    for(final String key : replacements.keySet()) {
+      if(key.indexOf('<') != -1 || key.indexOf('>') != -1) {
+        // such keys can overlap with other placeholders, only replacing one after another can find them
+        String replaced = input;
+        for(final Map.Entry<String, String> entry : replacements.entrySet()) {
+          replaced = replace(replaced, TAG_START + entry.getKey() + TAG_END, entry.getValue(), inserted);
+        }
+        return replaced;
+      }
+      minLength = Math.min(minLength, key.length());
+      maxLength = Math.max(maxLength, key.length());
+    }
+
+    StringBuilder sb = null;
+    int lastEnd = 0;
+    int start = input.indexOf('<');
+    while(start != -1) {
+      int end = start + 1;
+      while(end < input.length() && input.charAt(end) != '>' && input.charAt(end) != '<') {
+        end++;
+      }
+      if(end == input.length()) {
+        break;
+      } else if(input.charAt(end) == '<') {
+        // a placeholder can't contain a tag start, try again from there
+        start = end;
+        continue;
+      }
+
+      final int length = end - start - 1;
+      final String value = length >= minLength && length <= maxLength ? replacements.get(input.substring(start + 1, end)) : null;
+      if(value != null) {
+        if(sb == null) {
+          sb = new StringBuilder(input.length() + 16);
+        }
+        sb.append(input, lastEnd, start);
+        if(inserted != null) {
+          inserted.set(sb.length(), sb.length() + value.length());
+        }
+        sb.append(value);
+        lastEnd = end + 1;
+      }
+      start = input.indexOf('<', end + 1);
+    }
+
+    if(sb == null) {
+      return input;
+    }
+    return sb.append(input, lastEnd, input.length()).toString();
+  }
+
+  // replaces every occurrence of the placeholder, moving the inserted indices of the input along with its text
+  private static @NonNull String replace(final @NonNull String input, final @NonNull String placeholder, final @NonNull String value, final @Nullable BitSet inserted) {
+    if(inserted == null) {
+      return input.replace(placeholder, value);
+    }
+    int index = input.indexOf(placeholder);
+    if(index == -1) {
+      return input;
+    }
+    final BitSet before = (BitSet) inserted.clone();
+    inserted.clear();
+    final StringBuilder sb = new StringBuilder(input.length() + 16);
+    int lastEnd = 0;
+    while(index != -1) {
+      copy(before, lastEnd, index, inserted, sb.length());
+      sb.append(input, lastEnd, index);
+      inserted.set(sb.length(), sb.length() + value.length());
+      sb.append(value);
+      lastEnd = index + placeholder.length();
+      index = input.indexOf(placeholder, lastEnd);
+    }
+    copy(before, lastEnd, input.length(), inserted, sb.length());
+    return sb.append(input, lastEnd, input.length()).toString();
+  }
+
+  private static void copy(final @NonNull BitSet from, final int start, final int end, final @NonNull BitSet to, final int offset) {
+    for(int i = from.nextSetBit(start); i != -1 && i < end; i = from.nextSetBit(i + 1)) {
+      to.set(i - start + offset);
+    }
+  }
+
+  @NonNull Component parseFormat(final @NonNull String richMessage, final @Nullable MarkdownFlavor markdown, final @NonNull Context context, final @NonNull String... placeholders) {
+    final BitSet inserted = inserted(markdown);
+    return this.parseFormat0(this.handlePlaceholders(richMessage, context, inserted, placeholders), Collections.emptyMap(), markdown, inserted, context);
   }
 
-  @NonNull Component parseFormat(final @NonNull String richMessage, final @NonNull Map<String, String> placeholders, final Context context) {
-    return this.parseFormat(this.handlePlaceholders(richMessage, context, placeholders), context);
+  @NonNull Component parseFormat(final @NonNull String richMessage, final @NonNull Map<String, String> placeholders, final @Nullable MarkdownFlavor markdown, final Context context) {
+    final BitSet inserted = inserted(markdown);
+    return this.parseFormat0(this.handlePlaceholders(richMessage, context, placeholders, inserted), Collections.emptyMap(), markdown, inserted, context);
   }
 
-  @NonNull Component parseFormat(@NonNull String input, final Context context, final @NonNull Template... placeholders) {
+  @NonNull Component parseFormat(final @NonNull String input, final @Nullable MarkdownFlavor markdown, final Context context, final @NonNull Template... placeholders) {
     final Map<String, Template.ComponentTemplate> map = new HashMap<>();
+    final Map<String, String> replacements = new LinkedHashMap<>();
     for(final Template placeholder : placeholders) {
       if(placeholder instanceof Template.StringTemplate) {
         final Template.StringTemplate stringTemplate = (Template.StringTemplate) placeholder;
-        input = input.replace(TAG_START + stringTemplate.key() + TAG_END, this.sanitizePlaceholder(stringTemplate.value()));
+        replacements.putIfAbsent(stringTemplate.key(), this.sanitizePlaceholder(stringTemplate.value()));
       } else if(placeholder instanceof Template.ComponentTemplate) {
         final Template.ComponentTemplate componentTemplate = (Template.ComponentTemplate) placeholder;
         map.put(componentTemplate.key(), componentTemplate);
       }
     }
-    return this.parseFormat0(input, map, context);
+    final BitSet inserted = inserted(markdown);
+    return this.parseFormat0(replacePlaceholders(input, replacements, inserted), map, markdown, inserted, context);
   }
 
-  @NonNull Component parseFormat(@NonNull String input, final @NonNull List<Template> placeholders, final @NonNull Context context) {
+  @NonNull Component parseFormat(final @NonNull String input, final @NonNull List<Template> placeholders, final @Nullable MarkdownFlavor markdown, final @NonNull Context context) {
     final Map<String, Template.ComponentTemplate> map = new HashMap<>();
+    final Map<String, String> replacements = new LinkedHashMap<>();
     for(final Template placeholder : placeholders) {
       if(placeholder instanceof Template.StringTemplate) {
         final Template.StringTemplate stringTemplate = (Template.StringTemplate) placeholder;
-        input = input.replace(TAG_START + stringTemplate.key() + TAG_END, stringTemplate.value());
+        replacements.putIfAbsent(stringTemplate.key(), stringTemplate.value());
       } else if(placeholder instanceof Template.ComponentTemplate) {
         final Template.ComponentTemplate componentTemplate = (Template.ComponentTemplate) placeholder;
         map.put(componentTemplate.key(), componentTemplate);
       }
     }
-    return this.parseFormat0(input, map, context);
+    final BitSet inserted = inserted(markdown);
+    return this.parseFormat0(replacePlaceholders(input, replacements, inserted), map, markdown, inserted, context);
   }
 
   @NonNull Component parseFormat(final @NonNull String richMessage, final @NonNull Context context) {
@@ -203,102 +425,165 @@ class MiniMessageParser {
   }
 
   @NonNull Component parseFormat0(final @NonNull String richMessage, final @NonNull Map<String, Template.ComponentTemplate> templates, final @NonNull TransformationRegistry registry, final @NonNull Function<String, ComponentLike> placeholderResolver, final Context context) {
-    final MiniMessageLexer lexer = new MiniMessageLexer(richMessage, context);
+    return this.parseFormat0(session -> session.tokens(richMessage, context, this.tableLexer, this.streaming), templates, registry, placeholderResolver, context);
+  }
+
+  @NonNull Component parseFormat(final @NonNull CharSequence richMessage, final @NonNull Context context) {
+    return this.parseFormat0(session -> session.tokens(richMessage, context, this.tableLexer, this.streaming), Collections.emptyMap(), this.registry, this.placeholderResolver, context);
+  }
+
+  @NonNull Component parseFormat(final @NonNull Reader richMessage, final @NonNull Context context) {
+    return this.parseFormat0(session -> session.tokens(richMessage, context, this.streaming), Collections.emptyMap(), this.registry, this.placeholderResolver, context);
+  }
+
+  @NonNull Component parseFormat(final @NonNull String richMessage, final @NonNull MarkdownFlavor markdown, final @NonNull Context context) {
+    return this.parseFormat0(richMessage, Collections.emptyMap(), markdown, null, context);
+  }
+
+  // placeholder values only have to be told apart from the template when markdown is lexed
+  private static @Nullable BitSet inserted(final @Nullable MarkdownFlavor markdown) {
+    return markdown == null ? null : new BitSet();
+  }
+
+  // markdown is lexed together with the tags, after placeholders were replaced, but never inside their values
+  private @NonNull Component parseFormat0(final @NonNull String richMessage, final @NonNull Map<String, Template.ComponentTemplate> templates, final @Nullable MarkdownFlavor markdown, final @Nullable BitSet inserted, final @NonNull Context context) {
+    if(markdown == null) {
+      return this.parseFormat0(richMessage, templates, context);
+    }
+    return this.parseFormat0(session -> session.tokens(richMessage, context, markdown, inserted), templates, this.registry, this.placeholderResolver, context);
+  }
+
+  private @NonNull Component parseFormat0(final @NonNull Function<ParseSession, TokenBuffer> lexer, final @NonNull Map<String, Template.ComponentTemplate> templates, final @NonNull TransformationRegistry registry, final @NonNull Function<String, ComponentLike> placeholderResolver, final Context context) {
+    final ParseSession session = this.sessionPool.acquire();
+    try {
+      final TokenBuffer tokens = lexer.apply(session);
+      // streamed tokens are dropped right after they are parsed, so there is no list of them to share
+      context.tokens(this.streaming ? Collections.emptyList() : tokens);
+      return this.parse(session, tokens, registry, templates, placeholderResolver, context);
+    } finally {
+      this.sessionPool.release(session);
+    }
+  }
+
+  @NonNull TokenBuffer tokenize(final @NonNull String richMessage, final @NonNull Context context) {
+    final ParseSession session = this.sessionPool.acquire();
+    try {
+      // the session reuses its token buffer, so hand out a copy
+      return session.tokens(richMessage, context, this.tableLexer, false).copy();
+    } finally {
+      this.sessionPool.release(session);
+    }
+  }
+
+  @NonNull TokenBuffer tokenize(final @NonNull String richMessage, final @NonNull MarkdownFlavor markdown, final @NonNull Context context) {
+    final ParseSession session = this.sessionPool.acquire();
     try {
-      lexer.scan();
-    } catch(final IOException e) {
-      e.printStackTrace(); // TODO idk how to deal with this
+      return session.tokens(richMessage, context, markdown, null).copy();
+    } finally {
+      this.sessionPool.release(session);
     }
-    lexer.clean();
-    final List<Token> tokens = lexer.getTokens();
+  }
+
+  @NonNull Component parseTokens(final @NonNull TokenBuffer tokens, final @NonNull Map<String, Template.ComponentTemplate> templates, final @NonNull Context context) {
     context.tokens(tokens);
-    return this.parse(tokens, registry, templates, placeholderResolver, context);
+    final ParseSession session = this.sessionPool.acquire();
+    try {
+      return this.parse(session, tokens, this.registry, templates, this.placeholderResolver, context);
+    } finally {
+      this.sessionPool.release(session);
+    }
   }
 
-  @NonNull Component parse(final @NonNull List<Token> tokens, final @NonNull TransformationRegistry registry, final @NonNull Map<String, Template.ComponentTemplate> templates, final @NonNull Function<String, ComponentLike> placeholderResolver, final @NonNull Context context) {
+  @NonNull Component parse(final @NonNull ParseSession session, final @NonNull TokenBuffer tokens, final @NonNull TransformationRegistry registry, final @NonNull Map<String, Template.ComponentTemplate> templates, final @NonNull Function<String, ComponentLike> placeholderResolver, final @NonNull Context context) {
     final TextComponent.Builder parent = Component.text();
-    final Deque<Transformation> transformations = new ArrayDeque<>();
-    final Deque<OneTimeTransformation> oneTimeTransformations = new ArrayDeque<>();
+    final Deque<Transformation> transformations = session.transformations;
+    final Deque<OneTimeTransformation> oneTimeTransformations = session.oneTimeTransformations;
     boolean preActive = false;
 
+    // tokens are read by index, only tag params are handed out as token objects
     int i = 0;
-    while(i < tokens.size()) {
-      final Token token = tokens.get(i);
-      switch (token.type()) {
+    while(tokens.has(i)) {
+      // a streamed buffer only has to keep the tokens of the current tag
+      tokens.discard(i);
+      final TokenType type = tokens.type(i);
+      switch (type) {
         case ESCAPED_OPEN_TAG_START:
         case OPEN_TAG_START:
           // next has to be name
-          if(tokens.size() - 1 == i) {
+          if(!tokens.has(i + 1)) {
             if(context.isStrict()) {
-              throw new ParsingException("Expected name after open tag, but got nothing", -1);
+              throw new ParsingException("Expected name after open tag, but got nothing", tokens.end(i));
             } else {
-              tokens.set(i, new Token(TokenType.STRING, token.value()));
-              continue;
+              this.appendText(tokens.value(i), parent, session);
+              break;
             }
           }
-          Token name = tokens.get(++i);
+          final int tagStart = i;
+          int name = ++i;
           // if we have an escaped token before a real token, we need special handling, see GH-78
-          if(name.type() == TokenType.OPEN_TAG_START && token.type() == TokenType.ESCAPED_OPEN_TAG_START) {
-            i -= 1;
-            tokens.set(i, new Token(TokenType.STRING, name.value()));
+          if(tokens.type(name) == TokenType.OPEN_TAG_START && type == TokenType.ESCAPED_OPEN_TAG_START) {
+            // the escaped tag start is plain text, continue with the real tag
+            this.appendText(tokens.value(name), parent, session);
             continue;
           }
-          if(name.type() != TokenType.NAME && token.type() != TokenType.ESCAPED_OPEN_TAG_START) {
+          if(tokens.type(name) != TokenType.NAME && type != TokenType.ESCAPED_OPEN_TAG_START) {
             if(context.isStrict()) {
-              throw new ParsingException("Expected name after open tag, but got " + name, -1);
+              throw new ParsingException("Expected name after open tag, but got " + tokens.get(name), tokens.start(name));
             } else {
               // TODO: handle
-              context.miniMessage().parsingErrorMessageConsumer().accept(Collections.singletonList("Expected name after open tag, but got " + name));
+              context.miniMessage().parsingErrorMessageConsumer().accept(Collections.singletonList("Expected name after open tag, but got " + tokens.get(name)));
               continue;
             }
           }
           // after that, we get a param separator or the end
-          if(tokens.size() - 1 == i) {
+          if(!tokens.has(i + 1)) {
             if(context.isStrict()) {
-              throw new ParsingException("Expected param or end after open tag + name, but got nothing", -1);
+              throw new ParsingException("Expected param or end after open tag + name, but got nothing", tokens.end(name));
             } else {
               // TODO: handle
               context.miniMessage().parsingErrorMessageConsumer().accept(Collections.singletonList("Expected param or end after open tag + name, but got nothing"));
               continue;
             }
           }
-          Token paramOrEnd = tokens.get(++i);
-          if(paramOrEnd.type() == TokenType.PARAM_SEPARATOR) {
+          int paramOrEnd = ++i;
+          if(tokens.type(paramOrEnd) == TokenType.PARAM_SEPARATOR) {
             // we need to handle params, so read till end of tag
-            final List<Token> inners = new ArrayList<>();
-            Token next = null;
-            while(i < tokens.size() - 1 && (next = tokens.get(++i)).type() != TokenType.TAG_END) {
-              inners.add(next);
+            final int innersStart = i + 1;
+            while(tokens.has(i + 1) && tokens.type(i + 1) != TokenType.TAG_END) {
+              i++;
+            }
+            final List<Token> inners = new ArrayList<>(tokens.subList(innersStart, i + 1));
+            final boolean closed = tokens.has(i + 1);
+            if(closed) {
+              i++;
             }
 
-            if(next == null) {
+            if(!closed && inners.isEmpty()) {
               if(context.isStrict()) {
-                throw new ParsingException("Expected end sometimes after open tag + name, but got name = " + name + " and inners = " + inners, -1);
+                throw new ParsingException("Expected end sometimes after open tag + name, but got name = " + tokens.get(name) + " and inners = " + inners, tokens.start(tagStart));
               } else {
                 // TODO: handle
-                context.miniMessage().parsingErrorMessageConsumer().accept(Collections.singletonList("Expected end sometimes after open tag + name, but got name = " + name + " and inners = " + inners));
+                context.miniMessage().parsingErrorMessageConsumer().accept(Collections.singletonList("Expected end sometimes after open tag + name, but got name = " + tokens.get(name) + " and inners = " + inners));
                 continue;
               }
             }
 
-            final Transformation transformation = registry.get(name.value(), inners, templates, placeholderResolver, context);
-            if(transformation == null || (preActive && !transformation.allowedInPre()) || token.type() == TokenType.ESCAPED_OPEN_TAG_START) {
+            final Transformation transformation = registry.get(tokens.value(name), inners, templates, placeholderResolver, context);
+            if(transformation == null || (preActive && !transformation.allowedInPre()) || type == TokenType.ESCAPED_OPEN_TAG_START) {
               // this isn't a known tag, oh no!
-              // lets take a step back, first, create a string
-              i -= 3 + inners.size();
-              final StringBuilder string = new StringBuilder(tokens.get(i).value()).append(name.value()).append(paramOrEnd.value());
+              // so the whole tag is just text
+              final StringBuilder string = new StringBuilder(tokens.value(tagStart)).append(tokens.value(name)).append(tokens.value(paramOrEnd));
               inners.forEach(t -> string.append(t.value()));
-              string.append(next.value());
-              // insert our string
-              tokens.set(i, new Token(TokenType.STRING, string.toString()));
-              // remove the others
-              for(int c = 0; c < inners.size() + 3; c++) {
-                tokens.remove(i + 1);
+              if(closed) {
+                // if the tag was never closed, the last token already is one of the inners
+                string.append(tokens.value(i));
               }
-              continue;
+              this.appendText(string.toString(), parent, session);
+              break;
             } else {
               if(transformation instanceof InstantApplyTransformation) {
                 ((InstantApplyTransformation) transformation).applyInstant(parent, transformations);
+                session.invalidateStyle();
               } else if(transformation instanceof OneTimeTransformation) {
                 oneTimeTransformations.addLast((OneTimeTransformation) transformation);
               } else {
@@ -306,25 +591,21 @@ class MiniMessageParser {
                   preActive = true;
                 }
                 transformations.addLast(transformation);
+                session.invalidateStyle();
               }
             }
-          } else if(paramOrEnd.type() == TokenType.TAG_END || paramOrEnd.type() == TokenType.ESCAPED_CLOSE_TAG_START) {
+          } else if(tokens.type(paramOrEnd) == TokenType.TAG_END || tokens.type(paramOrEnd) == TokenType.ESCAPED_CLOSE_TAG_START) {
             // we finished
-            final Transformation transformation = registry.get(name.value(), Collections.emptyList(), templates, placeholderResolver, context);
-            if(transformation == null || (preActive && !transformation.allowedInPre()) || token.type() == TokenType.ESCAPED_OPEN_TAG_START) {
+            final Transformation transformation = registry.get(tokens.value(name), Collections.emptyList(), templates, placeholderResolver, context);
+            if(transformation == null || (preActive && !transformation.allowedInPre()) || type == TokenType.ESCAPED_OPEN_TAG_START) {
               // this isn't a known tag, oh no!
-              // lets take a step back, first, create a string
-              i -= 2;
-              final String string = tokens.get(i).value() + name.value() + paramOrEnd.value();
-              // insert our string
-              tokens.set(i, new Token(TokenType.STRING, string));
-              // remove the others
-              tokens.remove(i + 1);
-              tokens.remove(i + 1);
-              continue;
+              // so the whole tag is just text
+              this.appendText(tokens.value(tagStart) + tokens.value(name) + tokens.value(paramOrEnd), parent, session);
+              break;
             } else {
               if(transformation instanceof InstantApplyTransformation) {
                 ((InstantApplyTransformation) transformation).applyInstant(parent, transformations);
+                session.invalidateStyle();
               } else if(transformation instanceof OneTimeTransformation) {
                 oneTimeTransformations.addLast((OneTimeTransformation) transformation);
               } else {
@@ -332,14 +613,15 @@ class MiniMessageParser {
                   preActive = true;
                 }
                 transformations.addLast(transformation);
+                session.invalidateStyle();
               }
             }
           } else {
             if(context.isStrict()) {
-              throw new ParsingException("Expected tag end or param separator after tag name, but got " + paramOrEnd, -1);
+              throw new ParsingException("Expected tag end or param separator after tag name, but got " + tokens.get(paramOrEnd), tokens.start(paramOrEnd));
             } else {
               // TODO: handle
-              context.miniMessage().parsingErrorMessageConsumer().accept(Collections.singletonList("Expected tag end or param separator after tag name, but got " + paramOrEnd));
+              context.miniMessage().parsingErrorMessageConsumer().accept(Collections.singletonList("Expected tag end or param separator after tag name, but got " + tokens.get(paramOrEnd)));
               continue;
             }
           }
@@ -347,100 +629,80 @@ class MiniMessageParser {
         case ESCAPED_CLOSE_TAG_START:
         case CLOSE_TAG_START:
           // next has to be name
-          if(tokens.size() - 1 == i) {
+          if(!tokens.has(i + 1)) {
             if(context.isStrict()) {
-              throw new ParsingException("Expected name after open tag, but got nothing", -1);
+              throw new ParsingException("Expected name after open tag, but got nothing", tokens.end(i));
             } else {
-              tokens.set(i, new Token(TokenType.STRING, token.value()));
-              continue;
+              this.appendText(tokens.value(i), parent, session);
+              break;
             }
           }
-          name = tokens.get(++i);
-          if(name.type() != TokenType.NAME && token.type() != TokenType.ESCAPED_CLOSE_TAG_START) {
+          final int closeStart = i;
+          name = ++i;
+          if(tokens.type(name) != TokenType.NAME && type != TokenType.ESCAPED_CLOSE_TAG_START) {
             if(context.isStrict()) {
-              throw new ParsingException("Expected name after close tag start, but got " + name, -1);
+              throw new ParsingException("Expected name after close tag start, but got " + tokens.get(name), tokens.start(name));
             } else {
               // TODO: handle
-              context.miniMessage().parsingErrorMessageConsumer().accept(Collections.singletonList("Expected name after close tag start, but got " + name));
+              context.miniMessage().parsingErrorMessageConsumer().accept(Collections.singletonList("Expected name after close tag start, but got " + tokens.get(name)));
               continue;
             }
           }
           // after that, we just want end, sometimes end has params tho
-          if(tokens.size() - 1 == i) {
+          if(!tokens.has(i + 1)) {
             if(context.isStrict()) {
-              throw new ParsingException("Expected param or end after open tag + name, but got nothing", -1);
+              throw new ParsingException("Expected param or end after open tag + name, but got nothing", tokens.end(name));
             } else {
               // TODO: handle
               context.miniMessage().parsingErrorMessageConsumer().accept(Collections.singletonList("Expected param or end after open tag + name, but got nothing"));
               continue;
             }
           }
-          paramOrEnd = tokens.get(++i);
-          if(paramOrEnd.type() == TokenType.TAG_END) {
+          final String closing = tokens.value(name);
+          paramOrEnd = ++i;
+          if(tokens.type(paramOrEnd) == TokenType.TAG_END) {
             // we finished, gotta remove name out of the stack
-            if(!registry.exists(name.value()) || (preActive && !name.value().equalsIgnoreCase(PRE)) || token.type() == TokenType.ESCAPED_CLOSE_TAG_START) {
-              // invalid end
-              // lets take a step back, first, create a string
-              i -= 2;
-              final String string = tokens.get(i).value() + name.value() + paramOrEnd.value();
-              // insert our string
-              tokens.set(i, new Token(TokenType.STRING, string));
-              // remove the others
-              tokens.remove(i + 1);
-              tokens.remove(i + 1);
-              continue;
+            if(!registry.exists(closing) || (preActive && !closing.equalsIgnoreCase(PRE)) || type == TokenType.ESCAPED_CLOSE_TAG_START) {
+              // invalid end, so the whole tag is just text
+              this.appendText(tokens.value(closeStart) + closing + tokens.value(paramOrEnd), parent, session);
+              break;
             } else {
-              final Transformation removed = this.removeFirst(transformations, t -> t.name().equals(name.value()));
+              final Transformation removed = this.removeFirst(transformations, t -> t.name().equals(closing));
+              if(removed != null) {
+                session.invalidateStyle();
+              }
               if(removed instanceof PreTransformation) {
                 preActive = false;
-              } else if(removed == null && !registry.couldBeOnetimeTransformation(name.value())) {
-                // invalid end
-                // lets take a step back, first, create a string
-                i -= 2;
-                final String string = tokens.get(i).value() + name.value() + paramOrEnd.value();
-                // insert our string
-                tokens.set(i, new Token(TokenType.STRING, string));
-                // remove the others
-                tokens.remove(i + 1);
-                tokens.remove(i + 1);
-                i -= 1;
+              } else if(removed == null && !registry.couldBeOnetimeTransformation(closing)) {
+                // invalid end, so the whole tag is just text
+                this.appendText(tokens.value(closeStart) + closing + tokens.value(paramOrEnd), parent, session);
               }
             }
-          } else if(paramOrEnd.type() == TokenType.PARAM_SEPARATOR) {
+          } else if(tokens.type(paramOrEnd) == TokenType.PARAM_SEPARATOR) {
             // read all params
-            final List<Token> inners = new ArrayList<>();
-            Token next;
-            while((next = tokens.get(++i)).type() != TokenType.TAG_END) {
-              inners.add(next);
+            final int innersStart = i + 1;
+            while(tokens.type(++i) != TokenType.TAG_END) {
+              // skip to the tag end
             }
+            final List<Token> inners = new ArrayList<>(tokens.subList(innersStart, i));
 
             // check what we need to close, so we create a transformation and try to remove it
-            final Transformation transformation = registry.get(name.value(), inners, templates, placeholderResolver, context);
-            transformations.removeFirstOccurrence(transformation);
+            final Transformation transformation = registry.get(closing, inners, templates, placeholderResolver, context);
+            if(transformations.removeFirstOccurrence(transformation)) {
+              session.invalidateStyle();
+            }
           } else {
             if(context.isStrict()) {
-              throw new ParsingException("Expected tag end or param separator after tag name, but got " + paramOrEnd, -1);
+              throw new ParsingException("Expected tag end or param separator after tag name, but got " + tokens.get(paramOrEnd), tokens.start(paramOrEnd));
             } else {
               // TODO: handle
-              context.miniMessage().parsingErrorMessageConsumer().accept(Collections.singletonList("Expected tag end or param separator after tag name, but got " + paramOrEnd));
+              context.miniMessage().parsingErrorMessageConsumer().accept(Collections.singletonList("Expected tag end or param separator after tag name, but got " + tokens.get(paramOrEnd)));
               continue;
             }
           }
           break;
         default:
-          Component current = Component.text(token.value());
-
-          for(final Transformation transformation : transformations) {
-            current = transformation.apply(current, parent);
-          }
-
-          while(!oneTimeTransformations.isEmpty()) {
-            current = oneTimeTransformations.removeLast().applyOneTime(current, parent, transformations);
-          }
-
-          if(current != null) {
-            parent.append(current);
-          }
+          this.appendText(tokens.value(i), parent, session);
           break;
       }
       i++;
@@ -467,10 +729,12 @@ class MiniMessageParser {
     // then do one iteration of transformations again
     if(didApplyOneTime && !transformations.isEmpty()) {
       List<Component> newChildren = parent.asComponent().children();
-      Component newLast = newChildren.isEmpty() ? Component.empty() : newChildren.get(newChildren.size() - 1);
+      final Component oldLast = newChildren.isEmpty() ? Component.empty() : newChildren.get(newChildren.size() - 1);
+      Component newLast = oldLast;
       for(final Transformation transformation : transformations) {
         newLast = transformation.apply(newLast, parent);
       }
+      context.replaced(oldLast, newLast);
       // we got a new last, set that as last
       parentBuild = parent.build();
       newChildren = new ArrayList<>(newChildren);
@@ -488,6 +752,35 @@ class MiniMessageParser {
     }
   }
 
+  private void appendText(final @NonNull String text, final TextComponent.@NonNull Builder parent, final @NonNull ParseSession session) {
+    final Deque<Transformation> transformations = session.transformations;
+    final Deque<OneTimeTransformation> oneTimeTransformations = session.oneTimeTransformations;
+    final Style style = session.style();
+    Component current;
+
+    if(style != null) {
+      // only style transformations are active, so the text can be created with their merged style at once
+      current = style.isEmpty() ? Component.text(text) : Component.text(text, style);
+    } else {
+      current = Component.text(text);
+      for(final Transformation transformation : transformations) {
+        current = transformation.apply(current, parent);
+      }
+    }
+
+    if(!oneTimeTransformations.isEmpty()) {
+      while(!oneTimeTransformations.isEmpty()) {
+        current = oneTimeTransformations.removeLast().applyOneTime(current, parent, transformations);
+      }
+      // one time transformations get the stack and might have changed it
+      session.invalidateStyle();
+    }
+
+    if(current != null) {
+      parent.append(current);
+    }
+  }
+
   private Transformation removeFirst(final Deque<Transformation> transformations, final Predicate<Transformation> filter) {
     final Iterator<Transformation> each = transformations.descendingIterator();
     while(each.hasNext()) {
@@ -38,7 +38,10 @@ import net.kyori.adventure.text.format.TextDecoration;
 import org.checkerframework.checker.nullness.qual.NonNull;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
-import java.util.LinkedList;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.List;
 import java.util.Objects;
 
@@ -61,263 +64,321 @@ import static net.kyori.adventure.text.minimessage.Tokens.UNDERLINED;
 
 final class MiniMessageSerializer {
 
+  // decorations in the order their tags are written, the index of each is its bit in StyleState.decorations
+  private static final TextDecoration[] SERIALIZED_DECORATIONS = {TextDecoration.BOLD, TextDecoration.ITALIC, TextDecoration.OBFUSCATED, TextDecoration.STRIKETHROUGH, TextDecoration.UNDERLINED};
+  private static final String[] DECORATION_TAGS = {BOLD, ITALIC, OBFUSCATED, STRIKETHROUGH, UNDERLINED};
+  // tags closed after the decorations, in the order of the StyleState bits from StyleState.HOVER_BIT on
+  private static final String[] END_TAGS = {HOVER, CLICK, INSERTION, FONT};
+
   private MiniMessageSerializer() {
   }
 
   static @NonNull String serialize(final @NonNull Component component) {
-    final List<ComponentNode> nodes = traverseNode(new ComponentNode(component));
-    final StringBuilder sb = new StringBuilder();
-
-    for(int i = 0; i < nodes.size(); i++) {
-      // The previous node, null if it doesn't exist.
-      final Style previous = ((i - 1) >= 0) ? nodes.get(i - 1).style() : null;
-
-      // The next node, null if it doesn't exist.
-      final Style next = ((i + 1) < nodes.size()) ? nodes.get(i + 1).style() : null;
+    return serialize(component, (SerializeCache) null);
+  }
 
-      // The current node.
-      final ComponentNode node = nodes.get(i);
+  static @NonNull String serialize(final @NonNull Component component, final @Nullable SerializeCache cache) {
+    final StringBuilder sb = new StringBuilder();
+    serialize(component, sb, cache);
+    return sb.toString();
+  }
 
-      // Serialized string for the node.
-      sb.append(serializeNode(node, previous, next));
+  static void serialize(final @NonNull Component component, final @NonNull Appendable out, final @Nullable SerializeCache cache) {
+    try {
+      write(component, out, cache);
+    } catch(final IOException e) {
+      throw new UncheckedIOException(e);
     }
-    return sb.toString();
   }
 
-  // Sorts a ComponentNode's tree in a LinkedList using Pre Order Traversal.
-  private static List<ComponentNode> traverseNode(@NonNull final ComponentNode root) {
-    final List<ComponentNode> nodes = new LinkedList<>();
-    nodes.add(root);
+  // Walks the tree in pre order without recursion, a node is written once the state of the node after it is known.
+  private static void write(final @NonNull Component root, final @NonNull Appendable out, final @Nullable SerializeCache cache) throws IOException {
+    final Deque<Children> stack = new ArrayDeque<>();
+    Component component = root;
+    StyleState state = StyleState.of(null, root.style());
+    StyleState previous = null;
+    while(component != null) {
+      if(!component.children().isEmpty()) {
+        stack.push(new Children(component.children(), state));
+      }
 
-    // Only continue if children found.
-    if(!root.component().children().isEmpty()) {
-      for(final Component child : root.component().children()) {
-        nodes.addAll(traverseNode(new ComponentNode(child, root.style())));
+      Component next = null;
+      StyleState nextState = null;
+      while(!stack.isEmpty()) {
+        final Children children = stack.peek();
+        if(children.index < children.components.size()) {
+          next = children.components.get(children.index++);
+          nextState = StyleState.of(children.state, next.style());
+          break;
+        }
+        stack.pop();
       }
-    }
 
-    return nodes;
+      writeNode(component, state, previous, nextState, out, cache);
+      previous = state;
+      component = next;
+      state = nextState;
+    }
   }
 
-  // Serializes a single node into minimessage format.
-  private static String serializeNode(@NonNull final ComponentNode node, @Nullable final Style previous, @Nullable final Style next) {
-    final StringBuilder sb = new StringBuilder();
-    final Style style = node.style();
+  // Serializes a single node into minimessage format, tags are opened for what changed since the previous node and
+  // closed for what changes until the next one.
+  private static void writeNode(final @NonNull Component component, final @NonNull StyleState state, final @Nullable StyleState previous, final @Nullable StyleState next, final @NonNull Appendable out, final @Nullable SerializeCache cache) throws IOException {
+    final int opened = previous == null ? state.changedFrom(StyleState.EMPTY) : state.changedFrom(previous);
+    final int closed = next == null ? 0 : state.changedFrom(next);
 
     // # start tags
-
-    // ## color
-    if(style.color() != null && (previous == null || previous.color() != style.color())) {
-      sb.append(startColor(Objects.requireNonNull(style.color())));
-    }
-
-    // ## decoration
-    // ### only start if previous didn't start
-    if(style.hasDecoration(TextDecoration.BOLD) && (previous == null || !previous.hasDecoration(TextDecoration.BOLD))) {
-      sb.append(startTag(BOLD));
-    }
-    if(style.hasDecoration(TextDecoration.ITALIC) && (previous == null || !previous.hasDecoration(TextDecoration.ITALIC))) {
-      sb.append(startTag(ITALIC));
+    if((opened & StyleState.COLOR_BIT) != 0) {
+      startColor(out, Objects.requireNonNull(state.color));
     }
-    if(style.hasDecoration(TextDecoration.OBFUSCATED) && (previous == null || !previous.hasDecoration(TextDecoration.OBFUSCATED))) {
-      sb.append(startTag(OBFUSCATED));
+    for(int bits = opened & StyleState.DECORATION_BITS; bits != 0; bits &= bits - 1) {
+      startTag(out, DECORATION_TAGS[Integer.numberOfTrailingZeros(bits)]);
     }
-    if(style.hasDecoration(TextDecoration.STRIKETHROUGH) && (previous == null || !previous.hasDecoration(TextDecoration.STRIKETHROUGH))) {
-      sb.append(startTag(STRIKETHROUGH));
+    if((opened & StyleState.HOVER_BIT) != 0) {
+      writeHoverEvent(out, Objects.requireNonNull(state.hover), cache);
     }
-    if(style.hasDecoration(TextDecoration.UNDERLINED) && (previous == null || !previous.hasDecoration(TextDecoration.UNDERLINED))) {
-      sb.append(startTag(UNDERLINED));
+    if((opened & StyleState.CLICK_BIT) != 0) {
+      final ClickEvent click = Objects.requireNonNull(state.click);
+      out.append(TAG_START).append(CLICK).append(SEPARATOR).append(ClickEvent.Action.NAMES.key(click.action()))
+        .append(SEPARATOR).append('"').append(click.value()).append('"').append(TAG_END);
     }
-
-    // ## hover
-    // ### only start if prevComp didn't start the same one
-    final HoverEvent<?> hov = style.hoverEvent();
-    if(hov != null && (previous == null || areDifferent(hov, previous.hoverEvent()))) {
-      serializeHoverEvent(sb, hov);
+    if((opened & StyleState.INSERTION_BIT) != 0) {
+      out.append(TAG_START).append(INSERTION).append(SEPARATOR).append(state.insertion).append(TAG_END);
     }
-
-    // ## click
-    // ### only start if previous didn't start the same one
-    final ClickEvent click = style.clickEvent();
-    if(click != null && (previous == null || areDifferent(click, previous.clickEvent()))) {
-      sb.append(startTag(String.format("%s" + SEPARATOR + "%s" + SEPARATOR + "\"%s\"", CLICK, ClickEvent.Action.NAMES.key(click.action()), click.value())));
-    }
-
-    // ## insertion
-    // ### only start if previous didn't start the same one
-    final String insert = style.insertion();
-    if(insert != null && (previous == null || !insert.equals(previous.insertion()))) {
-      sb.append(startTag(INSERTION + SEPARATOR + insert));
-    }
-
-    // ## font
-    final Key font = style.font();
-    if(font != null && (previous == null || !font.equals(previous.font()))) {
-      sb.append(startTag(FONT + SEPARATOR + font.asString()));
+    if((opened & StyleState.FONT_BIT) != 0) {
+      out.append(TAG_START).append(FONT).append(SEPARATOR).append(Objects.requireNonNull(state.font).asString()).append(TAG_END);
     }
 
     // # append text
-    if(node.component() instanceof TextComponent) {
-      sb.append(((TextComponent) node.component()).content());
+    if(component instanceof TextComponent) {
+      out.append(((TextComponent) component).content());
     } else {
-      handleDifferentComponent(node.component(), sb);
+      writeDifferentComponent(component, out, cache);
     }
 
     // # end tags
-
-    // ## color
-    if(next != null && style.color() != null && next.color() != style.color()) {
-      sb.append(endColor(Objects.requireNonNull(style.color())));
+    if((closed & StyleState.COLOR_BIT) != 0) {
+      endColor(out, Objects.requireNonNull(state.color));
     }
-
-    // ## decoration
-    // ### only end decoration if next tag is different
-    if(next != null) {
-      if(style.hasDecoration(TextDecoration.BOLD) && !next.hasDecoration(TextDecoration.BOLD)) {
-        sb.append(endTag(BOLD));
-      }
-      if(style.hasDecoration(TextDecoration.ITALIC) && !next.hasDecoration(TextDecoration.ITALIC)) {
-        sb.append(endTag(ITALIC));
-      }
-      if(style.hasDecoration(TextDecoration.OBFUSCATED) && !next.hasDecoration(TextDecoration.OBFUSCATED)) {
-        sb.append(endTag(OBFUSCATED));
-      }
-      if(style.hasDecoration(TextDecoration.STRIKETHROUGH) && !next.hasDecoration(TextDecoration.STRIKETHROUGH)) {
-        sb.append(endTag(STRIKETHROUGH));
-      }
-      if(style.hasDecoration(TextDecoration.UNDERLINED) && !next.hasDecoration(TextDecoration.UNDERLINED)) {
-        sb.append(endTag(UNDERLINED));
-      }
+    for(int bits = closed & StyleState.DECORATION_BITS; bits != 0; bits &= bits - 1) {
+      endTag(out, DECORATION_TAGS[Integer.numberOfTrailingZeros(bits)]);
     }
-
-    // ## hover
-    // ### only end hover if next tag is different
-    if(next != null && style.hoverEvent() != null) {
-      if(areDifferent(Objects.requireNonNull(style.hoverEvent()), next.hoverEvent())) {
-        sb.append(endTag(HOVER));
-      }
-    }
-
-    // ## click
-    // ### only end click if next tag is different
-    if(next != null && style.clickEvent() != null) {
-      if(areDifferent(Objects.requireNonNull(style.clickEvent()), next.clickEvent())) {
-        sb.append(endTag(CLICK));
+    for(int i = 0; i < END_TAGS.length; i++) {
+      if((closed & (StyleState.HOVER_BIT << i)) != 0) {
+        endTag(out, END_TAGS[i]);
       }
     }
-
-    // ## insertion
-    // ### only end insertion if next tag is different
-    if(next != null && style.insertion() != null) {
-      if(!Objects.equals(style.insertion(), next.insertion())) {
-        sb.append(endTag(INSERTION));
-      }
-    }
-
-    // ## font
-    // ### only end insertion if next tag is different
-    if(next != null && style.font() != null) {
-      if(!Objects.equals(style.font(), next.font())) {
-        sb.append(endTag(FONT));
-      }
-    }
-    return sb.toString();
   }
 
-  private static void serializeHoverEvent(final @NonNull StringBuilder sb, final @NonNull HoverEvent<?> hov) {
+  private static void writeHoverEvent(final @NonNull Appendable out, final @NonNull HoverEvent<?> hov, final @Nullable SerializeCache cache) throws IOException {
     if(hov.action() == HoverEvent.Action.SHOW_TEXT) {
-      sb.append(startTag(HOVER + SEPARATOR + HoverEvent.Action.NAMES.key(hov.action()) + SEPARATOR + "\"" + serialize((Component) hov.value()).replace("\"", "\\\"") + "\""));
+      out.append(TAG_START).append(HOVER).append(SEPARATOR).append(HoverEvent.Action.NAMES.key(hov.action())).append(SEPARATOR).append('"');
+      writeQuoted(out, (Component) hov.value(), cache);
+      out.append('"').append(TAG_END);
     } else if(hov.action() == HoverEvent.Action.SHOW_ITEM) {
       final HoverEvent.ShowItem showItem = (HoverEvent.ShowItem) hov.value();
-      final String nbt;
+      out.append(TAG_START).append(HOVER).append(SEPARATOR).append(HoverEvent.Action.NAMES.key(hov.action())).append(SEPARATOR)
+        .append('\'').append(showItem.item().asString()).append('\'').append(SEPARATOR).append(String.valueOf(showItem.count()));
       if(showItem.nbt() != null) {
-        nbt = SEPARATOR + "\"" + showItem.nbt().string().replace("\"", "\\\"") + "\"";
-      } else {
-        nbt = "";
+        out.append(SEPARATOR).append('"');
+        new QuoteEscaping(out).append(showItem.nbt().string());
+        out.append('"');
       }
-      sb.append(startTag(HOVER + SEPARATOR + HoverEvent.Action.NAMES.key(hov.action()) + SEPARATOR + "'" + showItem.item().asString() + "'" + SEPARATOR + showItem.count() + nbt));
+      out.append(TAG_END);
     } else if(hov.action() == HoverEvent.Action.SHOW_ENTITY) {
       final HoverEvent.ShowEntity showEntity = (HoverEvent.ShowEntity) hov.value();
-      final String displayName;
+      out.append(TAG_START).append(HOVER).append(SEPARATOR).append(HoverEvent.Action.NAMES.key(hov.action())).append(SEPARATOR)
+        .append('\'').append(showEntity.type().asString()).append('\'').append(SEPARATOR).append(showEntity.id().toString());
       if(showEntity.name() != null) {
-        displayName = SEPARATOR + "\"" + serialize(showEntity.name()).replace("\"", "\\\"") + "\"";
-      } else {
-        displayName = "";
+        out.append(SEPARATOR).append('"');
+        writeQuoted(out, showEntity.name(), cache);
+        out.append('"');
       }
-      sb.append(startTag(HOVER + SEPARATOR + HoverEvent.Action.NAMES.key(hov.action()) + SEPARATOR + "'" + showEntity.type().asString() + "'" + SEPARATOR + showEntity.id().toString() + displayName));
+      out.append(TAG_END);
     } else {
       throw new RuntimeException("Don't know how to serialize '" + hov + "'!");
     }
   }
 
-  private static boolean areDifferent(final @NonNull ClickEvent c1, final @Nullable ClickEvent c2) {
-    if(c2 == null) return true;
-    return !c1.equals(c2) && (!c1.action().equals(c2.action()) || !c1.value().equals(c2.value()));
-  }
-
-  private static boolean areDifferent(final @NonNull HoverEvent<?> h1, final @Nullable HoverEvent<?> h2) {
-    if(h2 == null) return true;
-    return !h1.equals(h2) && (!h1.action().equals(h2.action())); // TODO also compare value
+  // Writes a component nested in a quoted tag argument, through the cache if there is one.
+  private static void writeQuoted(final @NonNull Appendable out, final @NonNull Component component, final @Nullable SerializeCache cache) throws IOException {
+    if(cache != null) {
+      new QuoteEscaping(out).append(cache.get(component, nested -> serialize(nested, cache)));
+    } else {
+      write(component, new QuoteEscaping(out), null);
+    }
   }
 
-  private static @NonNull String startColor(final @NonNull TextColor color) {
+  private static void startColor(final @NonNull Appendable out, final @NonNull TextColor color) throws IOException {
     if(color instanceof NamedTextColor) {
-      return startTag(Objects.requireNonNull(NamedTextColor.NAMES.key((NamedTextColor) color)));
+      startTag(out, Objects.requireNonNull(NamedTextColor.NAMES.key((NamedTextColor) color)));
     } else {
-      return startTag(COLOR + SEPARATOR + color.asHexString());
+      out.append(TAG_START).append(COLOR).append(SEPARATOR).append(color.asHexString()).append(TAG_END);
     }
   }
 
-  private static @NonNull String endColor(final @NonNull TextColor color) {
+  private static void endColor(final @NonNull Appendable out, final @NonNull TextColor color) throws IOException {
     if(color instanceof NamedTextColor) {
-      return endTag(Objects.requireNonNull(NamedTextColor.NAMES.key((NamedTextColor) color)));
+      endTag(out, Objects.requireNonNull(NamedTextColor.NAMES.key((NamedTextColor) color)));
     } else {
-      return endTag(COLOR + SEPARATOR + color.asHexString());
+      out.append(TAG_START).append(CLOSE_TAG).append(COLOR).append(SEPARATOR).append(color.asHexString()).append(TAG_END);
     }
   }
 
-  private static @NonNull String startTag(final @NonNull String content) {
-    return TAG_START + content + TAG_END;
+  private static void startTag(final @NonNull Appendable out, final @NonNull String name) throws IOException {
+    out.append(TAG_START).append(name).append(TAG_END);
   }
 
-  private static @NonNull String endTag(final @NonNull String content) {
-    return TAG_START + CLOSE_TAG + content + TAG_END;
+  private static void endTag(final @NonNull Appendable out, final @NonNull String name) throws IOException {
+    out.append(TAG_START).append(CLOSE_TAG).append(name).append(TAG_END);
   }
 
-  private static void handleDifferentComponent(final @NonNull Component component, final @NonNull StringBuilder sb) {
+  private static void writeDifferentComponent(final @NonNull Component component, final @NonNull Appendable out, final @Nullable SerializeCache cache) throws IOException {
     if(component instanceof KeybindComponent) {
-      sb.append(startTag(KEYBIND + SEPARATOR + ((KeybindComponent) component).keybind()));
+      out.append(TAG_START).append(KEYBIND).append(SEPARATOR).append(((KeybindComponent) component).keybind()).append(TAG_END);
     } else if(component instanceof TranslatableComponent) {
-      final StringBuilder args = new StringBuilder();
+      out.append(TAG_START).append(TRANSLATABLE).append(SEPARATOR).append(((TranslatableComponent) component).key());
       for(final Component arg : ((TranslatableComponent) component).args()) {
-        args.append(SEPARATOR)
-                .append("\"")
-                .append(serialize(arg).replace("\"", "\\\""))
-                .append("\"");
+        out.append(SEPARATOR).append('"');
+        writeQuoted(out, arg, cache);
+        out.append('"');
       }
-      sb.append(startTag(TRANSLATABLE + SEPARATOR + ((TranslatableComponent) component).key() + args));
+      out.append(TAG_END);
     }
   }
 
-  private static class ComponentNode {
-    private final Component component;
-    private final Style style;
+  // The children of a node that are still to be written, with the state they inherit.
+  private static final class Children {
+    private final List<Component> components;
+    private final StyleState state;
+    private int index;
 
-    ComponentNode(@NonNull final Component component) {
-      this(component, null);
+    Children(final @NonNull List<Component> components, final @NonNull StyleState state) {
+      this.components = components;
+      this.state = state;
     }
+  }
 
-    ComponentNode(@NonNull final Component component, @Nullable final Style parent) {
-      this.component = component;
-      this.style = (parent == null) ? component.style() : component.style().merge(parent, Style.Merge.Strategy.IF_ABSENT_ON_TARGET);
+  // The effective style of a node: decorations as a bitmask, the color as an int key and the remaining properties by
+  // reference, so the tags between two nodes fall out of a single comparison.
+  private static final class StyleState {
+    static final int DECORATION_BITS = (1 << SERIALIZED_DECORATIONS.length) - 1;
+    static final int COLOR_BIT = 1 << SERIALIZED_DECORATIONS.length;
+    // hover, click, insertion and font follow in the order of END_TAGS
+    static final int HOVER_BIT = COLOR_BIT << 1;
+    static final int CLICK_BIT = HOVER_BIT << 1;
+    static final int INSERTION_BIT = CLICK_BIT << 1;
+    static final int FONT_BIT = INSERTION_BIT << 1;
+    private static final int NO_COLOR = -1;
+    private static final int NAMED_COLOR = 1 << 24;
+    static final StyleState EMPTY = new StyleState(0, NO_COLOR, null, null, null, null, null);
+
+    final int decorations;
+    final int colorKey;
+    final @Nullable TextColor color;
+    final @Nullable HoverEvent<?> hover;
+    final @Nullable ClickEvent click;
+    final @Nullable String insertion;
+    final @Nullable Key font;
+
+    private StyleState(final int decorations, final int colorKey, final @Nullable TextColor color, final @Nullable HoverEvent<?> hover, final @Nullable ClickEvent click, final @Nullable String insertion, final @Nullable Key font) {
+      this.decorations = decorations;
+      this.colorKey = colorKey;
+      this.color = color;
+      this.hover = hover;
+      this.click = click;
+      this.insertion = insertion;
+      this.font = font;
     }
 
-    public Component component() {
-      return this.component;
+    // Resolves a style on top of the state of its parent, properties not set by the style are inherited.
+    static @NonNull StyleState of(final @Nullable StyleState parent, final @NonNull Style style) {
+      final StyleState base = parent == null ? EMPTY : parent;
+      if(style.isEmpty()) {
+        return base;
+      }
+
+      int decorations = base.decorations;
+      for(int i = 0; i < SERIALIZED_DECORATIONS.length; i++) {
+        final TextDecoration.State decoration = style.decoration(SERIALIZED_DECORATIONS[i]);
+        if(decoration == TextDecoration.State.TRUE) {
+          decorations |= 1 << i;
+        } else if(decoration == TextDecoration.State.FALSE) {
+          decorations &= ~(1 << i);
+        }
+      }
+      final TextColor color = style.color() == null ? base.color : style.color();
+      final int colorKey = color == null ? NO_COLOR : color.value() | (color instanceof NamedTextColor ? NAMED_COLOR : 0);
+      return new StyleState(
+        decorations,
+        colorKey,
+        color,
+        style.hoverEvent() == null ? base.hover : style.hoverEvent(),
+        style.clickEvent() == null ? base.click : style.clickEvent(),
+        style.insertion() == null ? base.insertion : style.insertion(),
+        style.font() == null ? base.font : style.font()
+      );
     }
 
-    public Style style() {
-      return this.style;
+    // The properties this state has that the other one does not share, as a mask of the constants above.
+    int changedFrom(final @NonNull StyleState other) {
+      if(this == other) {
+        return 0;
+      }
+      int changed = this.decorations & ~other.decorations;
+      if(this.color != null && this.colorKey != other.colorKey) {
+        changed |= COLOR_BIT;
+      }
+      // hover events only count as different when their action differs
+      if(this.hover != null && (other.hover == null || !this.hover.action().equals(other.hover.action()))) {
+        changed |= HOVER_BIT;
+      }
+      if(this.click != null && !this.click.equals(other.click)) {
+        changed |= CLICK_BIT;
+      }
+      if(this.insertion != null && !this.insertion.equals(other.insertion)) {
+        changed |= INSERTION_BIT;
+      }
+      if(this.font != null && !this.font.equals(other.font)) {
+        changed |= FONT_BIT;
+      }
+      return changed;
+    }
+  }
+
+  // Escapes double quotes of everything written inside of a quoted tag argument.
+  private static final class QuoteEscaping implements Appendable {
+    private final Appendable out;
+
+    QuoteEscaping(final @NonNull Appendable out) {
+      this.out = out;
+    }
+
+    @Override
+    public Appendable append(final CharSequence csq) throws IOException {
+      return this.append(csq, 0, csq.length());
+    }
+
+    @Override
+    public Appendable append(final CharSequence csq, final int start, final int end) throws IOException {
+      int last = start;
+      for(int i = start; i < end; i++) {
+        if(csq.charAt(i) == '"') {
+          this.out.append(csq, last, i).append('\\');
+          last = i;
+        }
+      }
+      this.out.append(csq, last, end);
+      return this;
+    }
+
+    @Override
+    public Appendable append(final char c) throws IOException {
+      if(c == '"') {
+        this.out.append('\\');
+      }
+      this.out.append(c);
+      return this;
     }
   }
 }
@@ -0,0 +1,119 @@
+/*
+ * This file is part of adventure-text-minimessage, licensed under the MIT License.
+ *
+ * Copyright (c) 2018-2020 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.adventure.text.minimessage;
+
+import net.kyori.adventure.text.Component;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.util.function.Function;
+
+/**
+ * A bounded cache for parse results, see {@link MiniMessage.Builder#cache(ParseCache)}.
+ *
+ * <p>Entries are keyed by the input and the configuration of the MiniMessage instance,
+ * so a cache can safely be shared between differently configured instances.
+ * Only messages parsed without templates or placeholders are cached.</p>
+ *
+ * @since 4.1.0
+ */
+public final class ParseCache {
+  private final BoundedCache<Key, Component> cache;
+
+  private ParseCache(final int maximumSize) {
+    this.cache = new BoundedCache<>(maximumSize);
+  }
+
+  /**
+   * Creates a new cache that keeps at most {@code maximumSize} parse results, evicting the least recently used ones.
+   *
+   * <p>Caches of more than 127 results are split into up to 16 independently locked parts of equal size,
+   * each evicting its own least recently used results, so a result may be evicted before the cache is full.</p>
+   *
+   * @param maximumSize the maximum amount of cached results
+   * @return a new cache
+   * @since 4.1.0
+   */
+  public static @NonNull ParseCache create(final int maximumSize) {
+    return new ParseCache(maximumSize);
+  }
+
+  /**
+   * Gets a snapshot of the hit, miss and eviction counters.
+   *
+   * @return the stats
+   * @since 4.1.0
+   */
+  public @NonNull CacheStats stats() {
+    return this.cache.stats();
+  }
+
+  /**
+   * Gets the amount of cached results.
+   *
+   * @return the size
+   * @since 4.1.0
+   */
+  public long size() {
+    return this.cache.size();
+  }
+
+  /**
+   * Removes all cached results.
+   *
+   * @since 4.1.0
+   */
+  public void clear() {
+    this.cache.clear();
+  }
+
+  @NonNull Component get(final @NonNull Object fingerprint, final @NonNull String input, final @NonNull Function<String, Component> parser) {
+    return this.cache.get(new Key(fingerprint, input), key -> parser.apply(key.input));
+  }
+
+  private static final class Key {
+    private final Object fingerprint;
+    private final String input;
+    private final int hash;
+
+    Key(final Object fingerprint, final String input) {
+      this.fingerprint = fingerprint;
+      this.input = input;
+      this.hash = 31 * fingerprint.hashCode() + input.hashCode();
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+      if(this == other) return true;
+      if(!(other instanceof Key)) return false;
+      final Key that = (Key) other;
+      return this.hash == that.hash && this.input.equals(that.input) && this.fingerprint.equals(that.fingerprint);
+    }
+
+    @Override
+    public int hashCode() {
+      return this.hash;
+    }
+  }
+}
@@ -0,0 +1,166 @@
+/*
+ * This file is part of adventure-text-minimessage, licensed under the MIT License.
+ *
+ * Copyright (c) 2018-2020 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.adventure.text.minimessage;
+
+import net.kyori.adventure.text.format.Style;
+import net.kyori.adventure.text.format.StyleBuilderApplicable;
+import net.kyori.adventure.text.minimessage.markdown.MarkdownFlavor;
+import net.kyori.adventure.text.minimessage.parser.MiniMessageLexer;
+import net.kyori.adventure.text.minimessage.parser.TableDrivenLexer;
+import net.kyori.adventure.text.minimessage.parser.TokenBuffer;
+import net.kyori.adventure.text.minimessage.transformation.OneTimeTransformation;
+import net.kyori.adventure.text.minimessage.transformation.Transformation;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.BitSet;
+import java.util.Deque;
+
+/**
+ * The reusable state of a single parse: a lexer and the transformation stacks.
+ *
+ * <p>Sessions are handed out by a {@link ParseSessionPool} and must only be used by one parse at a time.</p>
+ */
+final class ParseSession {
+  private final MiniMessageLexer lexer = new MiniMessageLexer();
+  private @Nullable TableDrivenLexer tableLexer;
+  final Deque<Transformation> transformations = new ArrayDeque<>();
+  final Deque<OneTimeTransformation> oneTimeTransformations = new ArrayDeque<>();
+  boolean inUse;
+  private @Nullable Style style;
+  private boolean styleValid;
+
+  /**
+   * Lexes the input into the token buffer of this session.
+   *
+   * @param input the input
+   * @param context the parse context
+   * @param tableDriven if the hand-written lexer should be used
+   * @param streaming if the input should only be lexed when the parser asks for tokens
+   * @return the token buffer
+   */
+  @NonNull TokenBuffer tokens(final @NonNull CharSequence input, final @NonNull Context context, final boolean tableDriven, final boolean streaming) {
+    if(tableDriven) {
+      if(this.tableLexer == null) {
+        this.tableLexer = new TableDrivenLexer();
+      }
+      this.tableLexer.reset(input, context);
+      if(streaming) {
+        return this.tableLexer.stream();
+      }
+      this.tableLexer.scan();
+      return this.tableLexer.buffer();
+    }
+    this.lexer.reset(input, context);
+    return this.tokens(streaming);
+  }
+
+  /**
+   * Lexes the input and its markdown into the token buffer of this session.
+   *
+   * <p>Only the hand-written lexer can lex markdown, and it has to see all of the input first.</p>
+   *
+   * @param input the input
+   * @param context the parse context
+   * @param markdown the markdown flavor
+   * @param literal the indices of the input that are not lexed as markdown, or null
+   * @return the token buffer
+   */
+  @NonNull TokenBuffer tokens(final @NonNull CharSequence input, final @NonNull Context context, final @NonNull MarkdownFlavor markdown, final @Nullable BitSet literal) {
+    if(this.tableLexer == null) {
+      this.tableLexer = new TableDrivenLexer();
+    }
+    this.tableLexer.reset(input, context, markdown, literal);
+    this.tableLexer.scan();
+    return this.tableLexer.buffer();
+  }
+
+  @NonNull TokenBuffer tokens(final @NonNull Reader input, final @NonNull Context context, final boolean streaming) {
+    // the hand-written lexer needs all of the input, so readers always use the generated one
+    this.lexer.reset(input, context);
+    return this.tokens(streaming);
+  }
+
+  private @NonNull TokenBuffer tokens(final boolean streaming) {
+    if(streaming) {
+      return this.lexer.stream();
+    }
+    try {
+      this.lexer.scan();
+    } catch(final IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return this.lexer.buffer();
+  }
+
+  /**
+   * Gets the style of all active transformations merged in stack order.
+   *
+   * <p>The merged style is kept until {@link #invalidateStyle()} is called, so it has to be called
+   * whenever the transformation stack changes.</p>
+   *
+   * @return the merged style, or null if a transformation on the stack is not style only
+   */
+  @Nullable Style style() {
+    if(!this.styleValid) {
+      this.style = this.mergeStyle();
+      this.styleValid = true;
+    }
+    return this.style;
+  }
+
+  void invalidateStyle() {
+    this.styleValid = false;
+    this.style = null;
+  }
+
+  private @Nullable Style mergeStyle() {
+    if(this.transformations.isEmpty()) {
+      return Style.empty();
+    }
+    final Style.Builder builder = Style.style();
+    for(final Transformation transformation : this.transformations) {
+      if(!(transformation instanceof StyleBuilderApplicable)) {
+        return null;
+      }
+      ((StyleBuilderApplicable) transformation).styleApply(builder);
+    }
+    return builder.build();
+  }
+
+  void clear() {
+    this.lexer.release();
+    if(this.tableLexer != null) {
+      this.tableLexer.release();
+    }
+    this.transformations.clear();
+    this.oneTimeTransformations.clear();
+    this.invalidateStyle();
+  }
+}
@@ -0,0 +1,133 @@
+/*
+ * This file is part of adventure-text-minimessage, licensed under the MIT License.
+ *
+ * Copyright (c) 2018-2020 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.adventure.text.minimessage;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Decides how the lexer buffers and parser state are reused between parses, see {@link MiniMessage.Builder#sessionPool(ParseSessionPool)}.
+ *
+ * @since 4.1.0
+ */
+public abstract class ParseSessionPool {
+
+  ParseSessionPool() {
+  }
+
+  /**
+   * Creates a pool that never reuses anything, every parse allocates its own lexer and state.
+   *
+   * @return a non-pooling strategy
+   * @since 4.1.0
+   */
+  public static @NonNull ParseSessionPool none() {
+    return new None();
+  }
+
+  /**
+   * Creates a pool that keeps one session per thread.
+   *
+   * <p>This is the default. Nested parses on the same thread, like hover texts, get a fresh session.</p>
+   *
+   * @return a thread local strategy
+   * @since 4.1.0
+   */
+  public static @NonNull ParseSessionPool threadLocal() {
+    return new PerThread();
+  }
+
+  /**
+   * Creates a pool that is shared between all threads and keeps up to {@code size} idle sessions.
+   *
+   * @param size the maximum amount of idle sessions
+   * @return a bounded strategy
+   * @since 4.1.0
+   */
+  public static @NonNull ParseSessionPool bounded(final int size) {
+    return new Bounded(size);
+  }
+
+  abstract @NonNull ParseSession acquire();
+
+  abstract void release(final @NonNull ParseSession session);
+
+  private static final class None extends ParseSessionPool {
+    @Override
+    @NonNull ParseSession acquire() {
+      return new ParseSession();
+    }
+
+    @Override
+    void release(final @NonNull ParseSession session) {
+    }
+  }
+
+  private static final class PerThread extends ParseSessionPool {
+    private final ThreadLocal<ParseSession> sessions = ThreadLocal.withInitial(ParseSession::new);
+
+    @Override
+    @NonNull ParseSession acquire() {
+      final ParseSession session = this.sessions.get();
+      if(session.inUse) {
+        return new ParseSession();
+      }
+      session.inUse = true;
+      return session;
+    }
+
+    @Override
+    void release(final @NonNull ParseSession session) {
+      if(session.inUse) {
+        session.clear();
+        session.inUse = false;
+      }
+    }
+  }
+
+  private static final class Bounded extends ParseSessionPool {
+    private final BlockingQueue<ParseSession> idle;
+
+    Bounded(final int size) {
+      if(size <= 0) {
+        throw new IllegalArgumentException("size must be positive, was " + size);
+      }
+      this.idle = new ArrayBlockingQueue<>(size);
+    }
+
+    @Override
+    @NonNull ParseSession acquire() {
+      final ParseSession session = this.idle.poll();
+      return session == null ? new ParseSession() : session;
+    }
+
+    @Override
+    void release(final @NonNull ParseSession session) {
+      session.clear();
+      this.idle.offer(session);
+    }
+  }
+}
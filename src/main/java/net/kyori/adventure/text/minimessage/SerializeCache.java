@@ -0,0 +1,197 @@
+/*
+ * This file is part of adventure-text-minimessage, licensed under the MIT License.
+ *
+ * Copyright (c) 2018-2020 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.adventure.text.minimessage;
+
+import net.kyori.adventure.text.Component;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.HashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * A cache for serialization results, see {@link MiniMessage.Builder#serializeCache(SerializeCache)}.
+ *
+ * <p>Components are looked up by identity first. Those entries are only weakly referenced and disappear together with
+ * their component. Results are also kept in a bounded tier keyed by equality, so an equal component built again still
+ * hits the cache. Components in hover events and translatable arguments are cached on their own as well.</p>
+ *
+ * <p>Serialization does not depend on the configuration of the MiniMessage instance, so a cache can be shared between
+ * differently configured instances.</p>
+ *
+ * @since 4.1.0
+ */
+public final class SerializeCache {
+  private static final int IDENTITY_STRIPES = 16;
+
+  private final IdentityStripe[] identity = new IdentityStripe[IDENTITY_STRIPES];
+  private final LongAdder identityHits = new LongAdder();
+  private final BoundedCache<EqualKey, String> equal;
+
+  private SerializeCache(final int maximumSize) {
+    for(int i = 0; i < IDENTITY_STRIPES; i++) {
+      this.identity[i] = new IdentityStripe();
+    }
+    this.equal = new BoundedCache<>(maximumSize);
+  }
+
+  /**
+   * Creates a new cache that keeps at most {@code maximumSize} results of equal components, evicting the least recently
+   * used ones.
+   *
+   * <p>Like {@link ParseCache#create(int)}, larger caches are split into parts that each evict their own least
+   * recently used results.</p>
+   *
+   * @param maximumSize the maximum amount of results cached by equality
+   * @return a new cache
+   * @since 4.1.0
+   */
+  public static @NonNull SerializeCache create(final int maximumSize) {
+    return new SerializeCache(maximumSize);
+  }
+
+  /**
+   * Gets a snapshot of the hit, miss and eviction counters.
+   *
+   * <p>Hits of both tiers are counted together, evictions are those of the bounded tier.</p>
+   *
+   * @return the stats
+   * @since 4.1.0
+   */
+  public @NonNull CacheStats stats() {
+    final CacheStats equal = this.equal.stats();
+    return new CacheStats(this.identityHits.sum() + equal.hits(), equal.misses(), equal.evictions());
+  }
+
+  /**
+   * Gets the amount of results cached by equality.
+   *
+   * @return the size
+   * @since 4.1.0
+   */
+  public long size() {
+    return this.equal.size();
+  }
+
+  /**
+   * Removes all cached results.
+   *
+   * @since 4.1.0
+   */
+  public void clear() {
+    for(final IdentityStripe stripe : this.identity) {
+      synchronized(stripe) {
+        stripe.clear();
+      }
+    }
+    this.equal.clear();
+  }
+
+  @NonNull String get(final @NonNull Component component, final @NonNull Function<Component, String> serializer) {
+    final int hash = System.identityHashCode(component);
+    final IdentityStripe stripe = this.identity[(hash ^ (hash >>> 16)) & (IDENTITY_STRIPES - 1)];
+    final IdentityKey lookup = new IdentityKey(component, hash, null);
+    String result;
+    synchronized(stripe) {
+      stripe.expunge();
+      result = stripe.get(lookup);
+    }
+    if(result != null) {
+      this.identityHits.increment();
+      return result;
+    }
+
+    // the key hashes the component tree once, for both the lookup and the insert
+    result = this.equal.get(new EqualKey(component), key -> serializer.apply(key.component));
+    synchronized(stripe) {
+      stripe.expunge();
+      stripe.put(new IdentityKey(component, hash, stripe.collected), result);
+    }
+    return result;
+  }
+
+  // the identity entries of components whose identity hash maps to the stripe, guarded by the stripe itself
+  private static final class IdentityStripe extends HashMap<IdentityKey, String> {
+    private static final long serialVersionUID = 42L;
+
+    private final transient ReferenceQueue<Component> collected = new ReferenceQueue<>();
+
+    // Removes the entries of components that were garbage collected, must hold the lock of this stripe.
+    void expunge() {
+      Object key;
+      while((key = this.collected.poll()) != null) {
+        this.remove(key);
+      }
+    }
+  }
+
+  private static final class IdentityKey extends WeakReference<Component> {
+    private final int hash;
+
+    IdentityKey(final @NonNull Component component, final int hash, final @Nullable ReferenceQueue<Component> queue) {
+      super(component, queue);
+      this.hash = hash;
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+      if(this == other) return true;
+      if(!(other instanceof IdentityKey)) return false;
+      final Component component = this.get();
+      return component != null && component == ((IdentityKey) other).get();
+    }
+
+    @Override
+    public int hashCode() {
+      return this.hash;
+    }
+  }
+
+  private static final class EqualKey {
+    private final Component component;
+    private final int hash;
+
+    EqualKey(final @NonNull Component component) {
+      this.component = component;
+      this.hash = component.hashCode();
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+      if(this == other) return true;
+      if(!(other instanceof EqualKey)) return false;
+      final EqualKey that = (EqualKey) other;
+      return this.hash == that.hash && this.component.equals(that.component);
+    }
+
+    @Override
+    public int hashCode() {
+      return this.hash;
+    }
+  }
+}
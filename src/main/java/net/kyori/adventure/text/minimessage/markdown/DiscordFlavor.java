@@ -30,6 +30,7 @@ package net.kyori.adventure.text.minimessage.markdown;
  */
 public final class DiscordFlavor implements MarkdownFlavor {
   private static final DiscordFlavor INSTANCE = new DiscordFlavor();
+  private static final MarkdownTable TABLE = MarkdownTable.compile(INSTANCE);
 
   private DiscordFlavor() {
   }
@@ -68,4 +69,9 @@ public final class DiscordFlavor implements MarkdownFlavor {
   public boolean isObfuscate(final char current, final char next) {
     return current == '|' && next == current;
   }
+
+  @Override
+  public MarkdownTable table() {
+    return TABLE;
+  }
 }
@@ -30,6 +30,7 @@ package net.kyori.adventure.text.minimessage.markdown;
  */
 public final class GithubFlavor implements MarkdownFlavor {
   private static final GithubFlavor INSTANCE = new GithubFlavor();
+  private static final MarkdownTable TABLE = MarkdownTable.compile(INSTANCE);
 
   private GithubFlavor() {
   }
@@ -68,4 +69,9 @@ public final class GithubFlavor implements MarkdownFlavor {
   public boolean isObfuscate(final char current, final char next) {
     return false;
   }
+
+  @Override
+  public MarkdownTable table() {
+    return TABLE;
+  }
 }
@@ -32,6 +32,7 @@ package net.kyori.adventure.text.minimessage.markdown;
 @Deprecated
 public final class LegacyFlavor implements MarkdownFlavor {
   private static final LegacyFlavor INSTANCE = new LegacyFlavor();
+  private static final MarkdownTable TABLE = MarkdownTable.compile(INSTANCE);
 
   private LegacyFlavor() {
   }
@@ -70,4 +71,9 @@ public final class LegacyFlavor implements MarkdownFlavor {
   public boolean isObfuscate(final char current, final char next) {
     return current == '|' && next == current;
   }
+
+  @Override
+  public MarkdownTable table() {
+    return TABLE;
+  }
 }
@@ -23,6 +23,8 @@
  */
 package net.kyori.adventure.text.minimessage.markdown;
 
+import org.checkerframework.checker.nullness.qual.Nullable;
+
 /**
  * A type of markdown.
  *
@@ -94,4 +96,18 @@ public interface MarkdownFlavor {
    * @since 4.1.0
    */
   boolean isObfuscate(final char current, final char next);
+
+  /**
+   * Gets a lookup table that gives the same answers as the predicates of this flavor.
+   *
+   * <p>Parsers use the table instead of asking every predicate about every char. Flavors without a table are
+   * asked through their predicates.</p>
+   *
+   * @return the table, or null if there is none
+   * @see MarkdownTable#compile(MarkdownFlavor)
+   * @since 4.1.0
+   */
+  default @Nullable MarkdownTable table() {
+    return null;
+  }
 }
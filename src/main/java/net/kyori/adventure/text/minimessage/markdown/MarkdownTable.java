@@ -0,0 +1,155 @@
+/*
+ * This file is part of adventure-text-minimessage, licensed under the MIT License.
+ *
+ * Copyright (c) 2018-2020 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.adventure.text.minimessage.markdown;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Classifies markdown markers with a lookup table instead of asking a {@link MarkdownFlavor} about every char.
+ *
+ * <p>The table has an entry for every ASCII char, holding the decoration the char starts when it is followed by
+ * itself and when it is followed by any other char. Chars that can't start a marker cost a single array load.
+ * Flavors that don't provide a {@link MarkdownFlavor#table() table} are asked through their predicates.</p>
+ *
+ * @since 4.1.0
+ */
+public final class MarkdownTable {
+  /**
+   * The char isn't a marker.
+   *
+   * @since 4.1.0
+   */
+  public static final int NONE = -1;
+  /**
+   * The char is a bold marker.
+   *
+   * @since 4.1.0
+   */
+  public static final int BOLD = 0;
+  /**
+   * The char is an italic marker.
+   *
+   * @since 4.1.0
+   */
+  public static final int ITALIC = 1;
+  /**
+   * The char is an underline marker.
+   *
+   * @since 4.1.0
+   */
+  public static final int UNDERLINE = 2;
+  /**
+   * The char is a strikethrough marker.
+   *
+   * @since 4.1.0
+   */
+  public static final int STRIKETHROUGH = 3;
+  /**
+   * The char is an obfuscate marker.
+   *
+   * @since 4.1.0
+   */
+  public static final int OBFUSCATE = 4;
+
+  private static final int ASCII = 128;
+
+  // the decoration plus one, in the low four bits for a single char and the high four bits for a repeated one
+  private final byte @Nullable [] entries;
+  private final @Nullable MarkdownFlavor fallback;
+
+  private MarkdownTable(final byte @Nullable [] entries, final @Nullable MarkdownFlavor fallback) {
+    this.entries = entries;
+    this.fallback = fallback;
+  }
+
+  /**
+   * Gets the table of the flavor, or one that asks the flavor itself if it doesn't have one.
+   *
+   * @param flavor the markdown flavor
+   * @return the table
+   * @since 4.1.0
+   */
+  public static @NonNull MarkdownTable of(final @NonNull MarkdownFlavor flavor) {
+    final MarkdownTable table = flavor.table();
+    return table != null ? table : new MarkdownTable(null, flavor);
+  }
+
+  /**
+   * Compiles the predicates of a flavor into a table.
+   *
+   * <p>Only flavors whose markers are ASCII chars, and that only look at the next char to tell if it is the
+   * same as the current one, can be compiled.</p>
+   *
+   * @param flavor the markdown flavor
+   * @return the table
+   * @since 4.1.0
+   */
+  public static @NonNull MarkdownTable compile(final @NonNull MarkdownFlavor flavor) {
+    final byte[] entries = new byte[ASCII];
+    for(char c = 0; c < ASCII; c++) {
+      final int single = ask(flavor, c, c == ' ' ? '\0' : ' ') + 1;
+      final int repeated = ask(flavor, c, c) + 1;
+      entries[c] = (byte) (repeated << 4 | single);
+    }
+    return new MarkdownTable(entries, null);
+  }
+
+  /**
+   * Gets the decoration a marker starting at the current char stands for.
+   *
+   * @param current the char being inspected
+   * @param next the next char, or a space at the end of the input
+   * @return the decoration, or {@link #NONE}
+   * @since 4.1.0
+   */
+  public int decoration(final char current, final char next) {
+    if(this.fallback != null) {
+      return ask(this.fallback, current, next);
+    }
+    if(current >= ASCII) {
+      return NONE;
+    }
+    final int entry = this.entries[current];
+    if(entry == 0) {
+      return NONE;
+    }
+    return (next == current ? entry >> 4 : entry & 0xF) - 1;
+  }
+
+  private static int ask(final MarkdownFlavor flavor, final char current, final char next) {
+    if(flavor.isBold(current, next)) {
+      return BOLD;
+    } else if(flavor.isItalic(current, next)) {
+      return ITALIC;
+    } else if(flavor.isUnderline(current, next)) {
+      return UNDERLINE;
+    } else if(flavor.isStrikeThrough(current, next)) {
+      return STRIKETHROUGH;
+    } else if(flavor.isObfuscate(current, next)) {
+      return OBFUSCATE;
+    }
+    return NONE;
+  }
+}
@@ -84,14 +84,16 @@ public final class MiniMarkdownParser {
     Insert obfuscateSkip = null;
 
     final List<Insert> inserts = new ArrayList<>();
+    final MarkdownTable table = MarkdownTable.of(markdownFlavor);
     int skip = 0;
     for(int i = 0; i + skip < input.length(); i++) {
       final int currIndex = i + skip;
       final char c = input.charAt(currIndex);
       final char n = next(currIndex, input);
+      final int decoration = table.decoration(c, n);
 
       boolean shouldSkip = false;
-      if(markdownFlavor.isBold(c, n)) {
+      if(decoration == MarkdownTable.BOLD) {
         if(bold == -1) {
           bold = sb.length();
           boldSkip = new Insert(sb.length(), c + "");
@@ -102,7 +104,7 @@ public final class MiniMarkdownParser {
         }
         skip += c == n ? 1 : 0;
         shouldSkip = true;
-      } else if(markdownFlavor.isItalic(c, n)) {
+      } else if(decoration == MarkdownTable.ITALIC) {
         if(italic == -1) {
           italic = sb.length();
           italicSkip = new Insert(sb.length(), c + "");
@@ -113,7 +115,7 @@ public final class MiniMarkdownParser {
         }
         skip += c == n ? 1 : 0;
         shouldSkip = true;
-      } else if(markdownFlavor.isUnderline(c, n)) {
+      } else if(decoration == MarkdownTable.UNDERLINE) {
         if(underline == -1) {
           underline = sb.length();
           underlineSkip = new Insert(sb.length(), c + "");
@@ -124,7 +126,7 @@ public final class MiniMarkdownParser {
         }
         skip += c == n ? 1 : 0;
         shouldSkip = true;
-      } else if(markdownFlavor.isStrikeThrough(c, n)) {
+      } else if(decoration == MarkdownTable.STRIKETHROUGH) {
         if(strikeThrough == -1) {
           strikeThrough = sb.length();
           strikeThroughSkip = new Insert(sb.length(), c + "");
@@ -135,7 +137,7 @@ public final class MiniMarkdownParser {
         }
         skip += c == n ? 1 : 0;
         shouldSkip = true;
-      } else if(markdownFlavor.isObfuscate(c, n)) {
+      } else if(decoration == MarkdownTable.OBFUSCATE) {
         if(obfuscate == -1) {
           obfuscate = sb.length();
           obfuscateSkip = new Insert(sb.length(), c + "");
@@ -153,33 +155,44 @@ public final class MiniMarkdownParser {
       }
     }
 
-    if(strip) {
-      inserts.clear();
+    final StringBuilder out;
+    if(strip || inserts.isEmpty()) {
+      out = sb;
     } else {
-      inserts.sort(Comparator.comparing(Insert::pos).thenComparing(Insert::value).reversed());
+      // tags at the same position end up ordered by their text, so closing tags come first
+      inserts.sort(Comparator.comparing(Insert::pos).thenComparing(Insert::value));
+      out = new StringBuilder(sb.length() + inserts.size() * 12);
+      int last = 0;
+      for(final Insert el : inserts) {
+        out.append(sb, last, el.pos()).append(el.value());
+        last = el.pos();
+      }
+      out.append(sb, last, sb.length());
     }
 
+    // markers that were never closed are put back where they were, at most one per decoration
+    final List<Insert> unclosed = new ArrayList<>();
     if(underline != -1) {
-      inserts.add(underlineSkip);
+      unclosed.add(underlineSkip);
     }
     if(bold != -1) {
-      inserts.add(boldSkip);
+      unclosed.add(boldSkip);
     }
     if(italic != -1) {
-      inserts.add(italicSkip);
+      unclosed.add(italicSkip);
     }
     if(strikeThrough != -1) {
-      inserts.add(strikeThroughSkip);
+      unclosed.add(strikeThroughSkip);
     }
     if(obfuscate != -1) {
-      inserts.add(obfuscateSkip);
+      unclosed.add(obfuscateSkip);
     }
 
-    for(final Insert el : inserts) {
-      sb.insert(el.pos(), el.value());
+    for(final Insert el : unclosed) {
+      out.insert(el.pos(), el.value());
     }
 
-    return sb.toString();
+    return out.toString();
   }
 
   private static char next(final int index, final @NonNull String input) {
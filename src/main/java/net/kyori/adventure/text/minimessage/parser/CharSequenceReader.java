@@ -0,0 +1,67 @@
+/*
+ * This file is part of adventure-text-minimessage, licensed under the MIT License.
+ *
+ * Copyright (c) 2018-2020 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.adventure.text.minimessage.parser;
+
+import java.io.Reader;
+import java.nio.CharBuffer;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+/**
+ * A reader over a char sequence that doesn't copy it into a string first.
+ */
+final class CharSequenceReader extends Reader {
+  private final CharSequence input;
+  private int position;
+
+  CharSequenceReader(final @NonNull CharSequence input) {
+    this.input = input;
+  }
+
+  @Override
+  public int read(final char @NonNull [] buffer, final int offset, final int length) {
+    final int remaining = this.input.length() - this.position;
+    if(remaining <= 0) {
+      return -1;
+    }
+    final int count = Math.min(length, remaining);
+    if(this.input instanceof String) {
+      ((String) this.input).getChars(this.position, this.position + count, buffer, offset);
+    } else if(this.input instanceof CharBuffer) {
+      // a duplicate, so the position of the caller's buffer isn't moved
+      final CharBuffer duplicate = ((CharBuffer) this.input).duplicate();
+      duplicate.position(duplicate.position() + this.position);
+      duplicate.get(buffer, offset, count);
+    } else {
+      for(int i = 0; i < count; i++) {
+        buffer[offset + i] = this.input.charAt(this.position + i);
+      }
+    }
+    this.position += count;
+    return count;
+  }
+
+  @Override
+  public void close() {
+  }
+}
@@ -0,0 +1,167 @@
+/*
+ * This file is part of adventure-text-minimessage, licensed under the MIT License.
+ *
+ * Copyright (c) 2018-2020 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.adventure.text.minimessage.parser;
+
+import java.util.Arrays;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * The state and helpers shared by {@link MiniMessageLexer} and {@link TableDrivenLexer}.
+ *
+ * <p>Holds the text of the next string or name token, kept as a range of the input until it can't be one
+ * anymore, because it contains chars that aren't in the input or the input can't be referenced.</p>
+ */
+final class LexerSupport {
+  private final StringBuilder string = new StringBuilder();
+  private int start = -1;
+  private int end = -1;
+  private boolean copied;
+
+  /**
+   * Appends the chars of the input from {@code start} to {@code end}.
+   *
+   * @param input the lexed input
+   * @param start the start index, inclusive
+   * @param end the end index, exclusive
+   */
+  void append(final @NonNull CharSequence input, final int start, final int end) {
+    if(!this.copied && (this.start == -1 || this.end == start)) {
+      if(this.start == -1) {
+        this.start = start;
+      }
+      this.end = end;
+    } else {
+      this.copied(input, start, end).append(input, start, end);
+    }
+  }
+
+  /**
+   * Appends a char that isn't in the input, so the text can't be a range of the input anymore.
+   *
+   * @param input the lexed input, or null if it can't be referenced
+   * @param c the char
+   * @param start the start index of the chars it replaces, inclusive
+   * @param end the end index of the chars it replaces, exclusive
+   */
+  void append(final @Nullable CharSequence input, final char c, final int start, final int end) {
+    this.copied(input, start, end).append(c);
+  }
+
+  /**
+   * Stops keeping the text as a range of the input and extends it to {@code end}.
+   *
+   * <p>The caller appends the chars from {@code start} to {@code end} to the returned builder.</p>
+   *
+   * @param input the lexed input, or null if it can't be referenced
+   * @param start the start index of the appended chars, inclusive
+   * @param end the end index of the appended chars, exclusive
+   * @return the builder holding the text
+   */
+  @NonNull StringBuilder copied(final @Nullable CharSequence input, final int start, final int end) {
+    if(!this.copied) {
+      this.string.setLength(0);
+      if(this.start != -1) {
+        this.string.append(input, this.start, this.end);
+      }
+      this.copied = true;
+    }
+    if(this.start == -1) {
+      this.start = start;
+    }
+    this.end = end;
+    return this.string;
+  }
+
+  /**
+   * Adds the text as a token, unless there is none, and starts a new text.
+   *
+   * @param tokens the buffer to add to
+   * @param type the token type
+   */
+  void add(final @NonNull TokenBuffer tokens, final @NonNull TokenType type) {
+    if(this.copied) {
+      if(this.string.length() != 0) {
+        tokens.add(type, this.string.toString(), this.start, this.end);
+      }
+    } else if(this.start != this.end) {
+      tokens.add(type, this.start, this.end);
+    }
+    this.reset();
+  }
+
+  /**
+   * Gets the text and starts a new text.
+   *
+   * @param input the lexed input, or null if it can't be referenced
+   * @return the text
+   */
+  @NonNull String take(final @Nullable CharSequence input) {
+    final String value;
+    if(this.copied) {
+      value = this.string.toString();
+    } else if(this.start == -1) {
+      value = "";
+    } else {
+      value = input.subSequence(this.start, this.end).toString();
+    }
+    this.reset();
+    return value;
+  }
+
+  /**
+   * Starts a new text.
+   */
+  void reset() {
+    this.string.setLength(0);
+    this.start = -1;
+    this.end = -1;
+    this.copied = false;
+  }
+
+  /**
+   * Adds the input and a marker pointing at the column of the error to its message.
+   *
+   * @param exception the exception
+   * @param input the lexed input
+   * @return the exception
+   */
+  static @NonNull ParsingException point(final @NonNull ParsingException exception, final @NonNull CharSequence input) {
+    final StringBuilder msg = new StringBuilder();
+    msg.append(exception.getMessage()).append("\n");
+    msg.append(input).append("\n");
+    msg.append(padding(exception.column())).append("^--- HERE");
+    exception.message(msg.toString());
+    return exception;
+  }
+
+  private static String padding(final int length) {
+    if(length > 0) {
+      final char[] array = new char[length];
+      Arrays.fill(array, ' ');
+      return new String(array);
+    }
+    return "";
+  }
+}
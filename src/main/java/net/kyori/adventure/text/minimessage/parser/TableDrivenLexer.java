@@ -0,0 +1,571 @@
+/*
+ * This file is part of adventure-text-minimessage, licensed under the MIT License.
+ *
+ * Copyright (c) 2018-2020 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.adventure.text.minimessage.parser;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import net.kyori.adventure.text.minimessage.Context;
+import net.kyori.adventure.text.minimessage.Tokens;
+import net.kyori.adventure.text.minimessage.markdown.MarkdownFlavor;
+import net.kyori.adventure.text.minimessage.markdown.MarkdownTable;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A hand-written lexer that creates the same tokens as {@link MiniMessageLexer}.
+ *
+ * <p>Chars are classified through a lookup table, only chars outside of ASCII need case folding to test if
+ * they can be part of a name. Runs of chars of the same class are matched at once, and the column of a
+ * char is only computed when an error is reported for it.</p>
+ *
+ * <p>With a {@link MarkdownFlavor}, markdown in text is lexed in the same pass and becomes the tokens of
+ * decoration tags. A marker that is never closed stays text, so such a lexer can't stream its tokens.</p>
+ *
+ * @since 4.1.0
+ */
+public final class TableDrivenLexer implements TokenSource {
+  // lexical states, see minimessage.jflex
+  private static final int YYINITIAL = 0;
+  private static final int TAG = 1;
+  private static final int TAG_DUMMY = 2;
+  private static final int PARAM = 3;
+  private static final int SINGLE_QUOTED = 4;
+  private static final int DOUBLE_QUOTED = 5;
+  private static final int STRING = 6;
+
+  // char classes, see the macros in minimessage.jflex
+  private static final int TEXT = 1; // [^\\<>]
+  private static final int SINGLE_QUOTED_TEXT = 1 << 1; // [^\\']
+  private static final int DOUBLE_QUOTED_TEXT = 1 << 2; // [^\\\"]
+  private static final int IDENTIFIER = 1 << 3; // [a-zA-Z0-9_\-#\./ ]
+  private static final int WHITESPACE = 1 << 4; // [ \n\t\r]
+  private static final int NON_ASCII = TEXT | SINGLE_QUOTED_TEXT | DOUBLE_QUOTED_TEXT;
+  private static final byte[] CLASSES = new byte[128];
+  // decorations by their index in a markdown table
+  private static final String[] DECORATIONS = {Tokens.BOLD, Tokens.ITALIC, Tokens.UNDERLINED, Tokens.STRIKETHROUGH, Tokens.OBFUSCATED};
+
+  static {
+    for(char c = 0; c < CLASSES.length; c++) {
+      int classes = TEXT | SINGLE_QUOTED_TEXT | DOUBLE_QUOTED_TEXT;
+      if(c == '\\' || c == '<' || c == '>') {
+        classes &= ~TEXT;
+      }
+      if(c == '\\' || c == '\'') {
+        classes &= ~SINGLE_QUOTED_TEXT;
+      }
+      if(c == '\\' || c == '"') {
+        classes &= ~DOUBLE_QUOTED_TEXT;
+      }
+      if(isAsciiLetter(c) || (c >= '0' && c <= '9') || c == '_' || c == '-' || c == '#' || c == '.' || c == '/' || c == ' ') {
+        classes |= IDENTIFIER;
+      }
+      if(c == ' ' || c == '\n' || c == '\t' || c == '\r') {
+        classes |= WHITESPACE;
+      }
+      CLASSES[c] = (byte) classes;
+    }
+  }
+
+  // text of the next string or name token
+  private final LexerSupport text = new LexerSupport();
+  private final TokenBuffer tokens = new TokenBuffer();
+  private CharSequence input = "error";
+  private Context context;
+  private int position;
+  // the index lexing stops at
+  private int end;
+  private int state;
+  private @Nullable MarkdownTable markdown;
+  // indices of the input that are never markdown markers
+  private @Nullable BitSet literal;
+  // the index of the open tag token of each decoration that is waiting for its closing marker, or -1
+  private final int[] decorations = new int[DECORATIONS.length];
+
+  /**
+   * Create a new lexer without input.
+   *
+   * @since 4.1.0
+   */
+  public TableDrivenLexer() {
+  }
+
+  /**
+   * Create a new lexer for the provided input.
+   *
+   * @param input the input
+   * @param context the parse context
+   * @since 4.1.0
+   */
+  public TableDrivenLexer(final @NonNull CharSequence input, final @NonNull Context context) {
+    this.reset(input, context);
+  }
+
+  /**
+   * Prepares this lexer to lex the provided input.
+   *
+   * @param input the input
+   * @param context the parse context
+   * @since 4.1.0
+   */
+  public void reset(final @NonNull CharSequence input, final @NonNull Context context) {
+    this.reset(input, context, null);
+  }
+
+  /**
+   * Prepares this lexer to lex the provided input, translating markdown of the provided flavor.
+   *
+   * @param input the input
+   * @param context the parse context
+   * @param markdown the markdown flavor, or null to not lex markdown
+   * @since 4.1.0
+   */
+  public void reset(final @NonNull CharSequence input, final @NonNull Context context, final @Nullable MarkdownFlavor markdown) {
+    this.reset(input, context, markdown, null);
+  }
+
+  /**
+   * Prepares this lexer to lex the provided input, translating markdown of the provided flavor outside of the literal indices.
+   *
+   * <p>Characters at literal indices, such as placeholder values inserted into the input, are never markdown markers.</p>
+   *
+   * @param input the input
+   * @param context the parse context
+   * @param markdown the markdown flavor, or null to not lex markdown
+   * @param literal the indices of the input markdown is not lexed at, or null to lex markdown everywhere
+   * @since 4.1.0
+   */
+  public void reset(final @NonNull CharSequence input, final @NonNull Context context, final @Nullable MarkdownFlavor markdown, final @Nullable BitSet literal) {
+    this.reset(input, 0, input.length(), context, markdown, literal);
+  }
+
+  /**
+   * Prepares this lexer to lex a range of the provided input, as if the range was all of the input.
+   *
+   * <p>Tokens keep their indices in the whole input, so no part of it has to be copied.</p>
+   *
+   * @param input the input
+   * @param start the index the range starts at
+   * @param end the index the range ends before
+   * @param context the parse context
+   * @since 4.1.0
+   */
+  public void reset(final @NonNull CharSequence input, final int start, final int end, final @NonNull Context context) {
+    this.reset(input, start, end, context, null, null);
+  }
+
+  private void reset(final @NonNull CharSequence input, final int start, final int end, final @NonNull Context context, final @Nullable MarkdownFlavor markdown, final @Nullable BitSet literal) {
+    this.input = input;
+    this.context = context;
+    this.position = start;
+    this.end = end;
+    this.state = YYINITIAL;
+    this.markdown = markdown == null ? null : MarkdownTable.of(markdown);
+    this.literal = literal == null || literal.isEmpty() ? null : literal;
+    Arrays.fill(this.decorations, -1);
+    this.resetString();
+    this.tokens.reset(input);
+  }
+
+  /**
+   * Drops the input and all tokens.
+   *
+   * @since 4.1.0
+   */
+  public void release() {
+    this.input = "error";
+    this.end = 0;
+    this.context = null;
+    this.markdown = null;
+    this.literal = null;
+    this.resetString();
+    this.tokens.reset(null);
+  }
+
+  /**
+   * Gets the buffer tokens are lexed into.
+   *
+   * @return the token buffer
+   * @since 4.1.0
+   */
+  public @NonNull TokenBuffer buffer() {
+    return this.tokens;
+  }
+
+  /**
+   * Lets the buffer lex more input when the parser asks for tokens it doesn't have yet.
+   *
+   * @return the token buffer
+   * @since 4.1.0
+   */
+  public @NonNull TokenBuffer stream() {
+    if(this.markdown != null) {
+      // if a marker is closed is only known at the end of the input
+      this.scan();
+      return this.tokens;
+    }
+    this.tokens.stream(this);
+    return this.tokens;
+  }
+
+  /**
+   * Lexes all of the input.
+   *
+   * @return the tokens
+   * @since 4.1.0
+   */
+  public @NonNull List<Token> scan() {
+    while(this.advance()) {
+      // keep going until the end
+    }
+    return this.tokens;
+  }
+
+  @Override
+  public boolean advance() {
+    try {
+      final int length = this.end;
+      while(this.position < length) {
+        if(this.step(length)) {
+          return true;
+        }
+      }
+      if(this.state == STRING) {
+        this.state = YYINITIAL;
+        this.addString(TokenType.STRING);
+        return true;
+      }
+      if(this.markdown != null) {
+        this.unclosedDecorations();
+      }
+      return false;
+    } catch(final ParsingException ex) {
+      throw LexerSupport.point(ex, this.input);
+    }
+  }
+
+  // matches one rule at the current position, returns if it added tokens
+  private boolean step(final int length) {
+    final int start = this.position;
+    final char c = this.input.charAt(start);
+    if(this.markdown != null && (this.state == YYINITIAL || this.state == STRING)) {
+      final int decoration = this.decoration(start, length);
+      if(decoration != -1) {
+        return this.decorate(start, length, decoration);
+      }
+    }
+    switch(this.state) {
+      case YYINITIAL:
+        if(c == '\\' && this.charAt(start + 1) == '<') {
+          this.resetString();
+          return this.escapedTagStart(start);
+        } else if(c == '<') {
+          this.resetString();
+          return this.tagStart(start);
+        }
+        this.resetString();
+        this.appendMatch(start, this.is(c, TEXT) ? this.textRun(start, length) : this.codePointEnd(start, length));
+        this.state = STRING;
+        return false;
+      case TAG:
+        if(c == ':') {
+          return this.separator(start, TokenType.NAME);
+        } else if(c == '>') {
+          return this.tagEnd(start, TokenType.NAME);
+        } else if(this.is(c, IDENTIFIER)) {
+          this.appendMatch(start, this.run(start, length, IDENTIFIER));
+          return false;
+        }
+        this.illegal(start, length, ". Only alphanumeric + ._-#/ are allowed as token names");
+        return false;
+      case TAG_DUMMY:
+        if(c == '<') {
+          this.resetString();
+          this.state = TAG;
+          this.add(TokenType.OPEN_TAG_START, start, start + 1);
+          return true;
+        } else if(c == ':') {
+          return this.separator(start, TokenType.NAME);
+        } else if(c == '>') {
+          return this.tagEnd(start, TokenType.NAME);
+        } else if(this.is(c, WHITESPACE)) {
+          // the whitespace ends the escaped tag and is dropped
+          this.position = this.run(start, length, WHITESPACE);
+          this.state = YYINITIAL;
+          this.addString(TokenType.STRING);
+          return true;
+        }
+        this.appendMatch(start, this.codePointEnd(start, length));
+        return false;
+      case PARAM:
+        if(c == ':') {
+          this.addString(TokenType.STRING);
+          this.add(TokenType.PARAM_SEPARATOR, start, start + 1);
+          return true;
+        } else if(c == '>') {
+          return this.tagEnd(start, TokenType.STRING);
+        } else if(c == '\'') {
+          this.state = SINGLE_QUOTED;
+          this.add(TokenType.SINGLE_QUOTE_START, start, start + 1);
+          return true;
+        } else if(c == '"') {
+          this.state = DOUBLE_QUOTED;
+          this.add(TokenType.DOUBLE_QUOTE_START, start, start + 1);
+          return true;
+        } else if(this.is(c, IDENTIFIER)) {
+          this.appendMatch(start, this.run(start, length, IDENTIFIER));
+          return false;
+        }
+        this.illegal(start, length, ". Only alphanumeric + ._-#/ and spaces are allowed as params");
+        return false;
+      case SINGLE_QUOTED:
+        return this.quoted(start, length, c, '\'', SINGLE_QUOTED_TEXT, TokenType.SINGLE_QUOTE_END);
+      case DOUBLE_QUOTED:
+        return this.quoted(start, length, c, '"', DOUBLE_QUOTED_TEXT, TokenType.DOUBLE_QUOTE_END);
+      default:
+        if(c == '\\') {
+          final char next = this.charAt(start + 1);
+          if(next == '<') {
+            this.addString(TokenType.STRING);
+            return this.escapedTagStart(start);
+          } else if(next == 'n' || next == 'N') {
+            this.append('\n', start, start + 2);
+            return false;
+          }
+          this.appendMatch(start, start + 1);
+          return false;
+        } else if(c == '>') {
+          return this.tagEnd(start, TokenType.STRING);
+        } else if(c == '<') {
+          this.addString(TokenType.STRING);
+          return this.tagStart(start);
+        }
+        this.appendMatch(start, this.textRun(start, length));
+        return false;
+    }
+  }
+
+  // the markdown decoration a marker at the index stands for, or -1
+  private int decoration(final int index, final int length) {
+    if(this.literal == null) {
+      return this.markdown.decoration(this.input.charAt(index), index + 1 < length ? this.input.charAt(index + 1) : ' ');
+    } else if(this.literal.get(index)) {
+      return -1;
+    }
+    // a marker can't continue into literal text either
+    return this.markdown.decoration(this.input.charAt(index), index + 1 < length && !this.literal.get(index + 1) ? this.input.charAt(index + 1) : ' ');
+  }
+
+  // a marker opens a decoration tag, the next one of its kind closes it
+  private boolean decorate(final int start, final int length, final int decoration) {
+    final int end = Math.min(length, this.input.charAt(start) == this.charAt(start + 1) ? start + 2 : start + 1);
+    if(this.state == STRING) {
+      this.addString(TokenType.STRING);
+    }
+    this.state = YYINITIAL;
+    if(this.decorations[decoration] == -1) {
+      this.decorations[decoration] = this.tokens.size();
+      this.tokens.add(TokenType.OPEN_TAG_START, start, end);
+    } else {
+      this.decorations[decoration] = -1;
+      this.tokens.add(TokenType.CLOSE_TAG_START, start, end);
+    }
+    this.tokens.add(TokenType.NAME, DECORATIONS[decoration], start, end);
+    this.add(TokenType.TAG_END, start, end);
+    return true;
+  }
+
+  // turns the tags of markers that were never closed back into text, joined with the text around them
+  private void unclosedDecorations() {
+    while(true) {
+      int decoration = -1;
+      for(int i = 0; i < this.decorations.length; i++) {
+        if(this.decorations[i] != -1 && (decoration == -1 || this.decorations[i] > this.decorations[decoration])) {
+          decoration = i;
+        }
+      }
+      if(decoration == -1) {
+        return;
+      }
+      int from = this.decorations[decoration];
+      int to = from + 3;
+      this.decorations[decoration] = -1;
+      int start = this.tokens.start(from);
+      int end = this.tokens.end(from);
+      final StringBuilder value = new StringBuilder().append(this.input, start, end);
+      if(from > 0 && this.tokens.type(from - 1) == TokenType.STRING && this.tokens.end(from - 1) == start) {
+        from--;
+        start = this.tokens.start(from);
+        value.insert(0, this.tokens.value(from));
+      }
+      if(to < this.tokens.size() && this.tokens.type(to) == TokenType.STRING && this.tokens.start(to) == end) {
+        end = this.tokens.end(to);
+        value.append(this.tokens.value(to));
+        to++;
+      }
+      this.tokens.replace(from, to, TokenType.STRING, value.toString(), start, end);
+    }
+  }
+
+  private boolean tagStart(final int start) {
+    this.state = TAG;
+    if(this.charAt(start + 1) == '/') {
+      this.add(TokenType.CLOSE_TAG_START, start, start + 2);
+    } else {
+      this.add(TokenType.OPEN_TAG_START, start, start + 1);
+    }
+    return true;
+  }
+
+  private boolean escapedTagStart(final int start) {
+    this.state = TAG_DUMMY;
+    if(this.charAt(start + 2) == '/') {
+      this.add(TokenType.ESCAPED_CLOSE_TAG_START, start, start + 3);
+    } else {
+      this.add(TokenType.ESCAPED_OPEN_TAG_START, start, start + 2);
+    }
+    return true;
+  }
+
+  private boolean separator(final int start, final TokenType pending) {
+    this.state = PARAM;
+    this.addString(pending);
+    this.add(TokenType.PARAM_SEPARATOR, start, start + 1);
+    return true;
+  }
+
+  private boolean tagEnd(final int start, final TokenType pending) {
+    this.state = YYINITIAL;
+    this.addString(pending);
+    this.add(TokenType.TAG_END, start, start + 1);
+    return true;
+  }
+
+  private boolean quoted(final int start, final int length, final char c, final char quote, final int text, final TokenType end) {
+    if(c == '\\' && this.charAt(start + 1) == quote) {
+      // the escaped quote is kept without the backslash
+      this.appendMatch(start + 1, start + 2);
+      return false;
+    } else if(c == quote) {
+      this.state = PARAM;
+      this.addString(TokenType.STRING);
+      this.add(end, start, start + 1);
+      return true;
+    }
+    this.appendMatch(start, this.is(c, text) ? this.run(start, length, text) : start + 1);
+    return false;
+  }
+
+  private void illegal(final int start, final int length, final String message) {
+    final int end = this.codePointEnd(start, length);
+    if(this.context.isStrict()) {
+      throw new ParsingException("Illegal character '" + this.input.subSequence(start, end) + "'" + message, this.column(start));
+    }
+    this.appendMatch(start, end);
+  }
+
+  private boolean is(final char c, final int charClass) {
+    if(c < CLASSES.length) {
+      return (CLASSES[c] & charClass) != 0;
+    }
+    if(charClass == IDENTIFIER) {
+      // names are matched ignoring case, so some chars outside of ASCII fold into letters
+      return isAsciiLetter(Character.toUpperCase(c)) || isAsciiLetter(Character.toLowerCase(c));
+    }
+    return (NON_ASCII & charClass) != 0;
+  }
+
+  private static boolean isAsciiLetter(final char c) {
+    return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+  }
+
+  private int run(final int start, final int length, final int charClass) {
+    int end = start + 1;
+    while(end < length && this.is(this.input.charAt(end), charClass)) {
+      end++;
+    }
+    return end;
+  }
+
+  // a run of text, up to the next markdown marker
+  private int textRun(final int start, final int length) {
+    if(this.markdown == null) {
+      return this.run(start, length, TEXT);
+    }
+    int end = start + 1;
+    while(end < length && this.is(this.input.charAt(end), TEXT) && this.decoration(end, length) == -1) {
+      end++;
+    }
+    return end;
+  }
+
+  private int codePointEnd(final int start, final int length) {
+    if(Character.isHighSurrogate(this.input.charAt(start)) && start + 1 < length && Character.isLowSurrogate(this.input.charAt(start + 1))) {
+      return start + 2;
+    }
+    return start + 1;
+  }
+
+  private char charAt(final int index) {
+    return index < this.end ? this.input.charAt(index) : 0;
+  }
+
+  // the column like jflex counts it, chars since the last line terminator
+  private int column(final int index) {
+    int start = index;
+    while(start > 0) {
+      final char c = this.input.charAt(start - 1);
+      if(c == '\n' || c == '\r' || c == '\u000B' || c == '\f' || c == '\u0085' || c == '\u2028' || c == '\u2029') {
+        break;
+      }
+      start--;
+    }
+    return index - start;
+  }
+
+  private void appendMatch(final int start, final int end) {
+    this.text.append(this.input, start, end);
+    this.position = end;
+  }
+
+  // appends a char that isn't in the input
+  private void append(final char c, final int start, final int end) {
+    this.text.append(this.input, c, start, end);
+    this.position = end;
+  }
+
+  private void resetString() {
+    this.text.reset();
+  }
+
+  // adds the pending text as a token, unless there is none
+  private void addString(final TokenType type) {
+    this.text.add(this.tokens, type);
+  }
+
+  private void add(final TokenType type, final int start, final int end) {
+    this.tokens.add(type, start, end);
+    this.position = end;
+  }
+}
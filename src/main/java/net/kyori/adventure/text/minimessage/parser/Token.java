@@ -23,6 +23,7 @@
  */
 package net.kyori.adventure.text.minimessage.parser;
 
+import java.nio.CharBuffer;
 import java.util.List;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -30,6 +31,7 @@ import net.kyori.examination.Examinable;
 import net.kyori.examination.ExaminableProperty;
 import net.kyori.examination.string.StringExaminer;
 import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
 /**
  * A parsed token from the lexer.
@@ -37,9 +39,12 @@ import org.checkerframework.checker.nullness.qual.NonNull;
  * @since 4.1.0
  */
 public final class Token implements Examinable {
-  // TODO token should have a char pointer/counter to point to the index where it begins, for nice error messages
-  private final String value;
   private final TokenType type;
+  // tokens made by the lexer only point into the input, the value is created when someone asks for it
+  private final @Nullable CharSequence source;
+  private final int start;
+  private final int end;
+  private @Nullable String value;
 
   /**
    * Create a new value-less token of the provided type.
@@ -69,10 +74,32 @@ public final class Token implements Examinable {
    * @since 4.1.0
    */
   public Token(final TokenType type, final String value) {
+    this(type, value, -1, -1);
+  }
+
+  Token(final TokenType type, final int start, final int end) {
+    this(type, type.value(), start, end);
+  }
+
+  Token(final TokenType type, final String value, final int start, final int end) {
     this.type = type;
+    this.source = null;
+    this.start = start;
+    this.end = end;
     this.value = value;
   }
 
+  private Token(final TokenType type, final CharSequence source, final int start, final int end) {
+    this.type = type;
+    this.source = source;
+    this.start = start;
+    this.end = end;
+  }
+
+  static Token slice(final TokenType type, final CharSequence source, final int start, final int end) {
+    return new Token(type, source, start, end);
+  }
+
   /**
    * Get the type of token matched.
    *
@@ -92,7 +119,51 @@ public final class Token implements Examinable {
    * @since 4.1.0
    */
   public String value() {
-    return this.value;
+    // racing threads create equal strings, so this doesn't need to be synchronized
+    String value = this.value;
+    if(value == null) {
+      value = this.source.subSequence(this.start, this.end).toString();
+      this.value = value;
+    }
+    return value;
+  }
+
+  /**
+   * Get the matched value, without copying it out of the input if possible.
+   *
+   * @return a view of the token value
+   * @since 4.1.0
+   */
+  public CharSequence contents() {
+    final String value = this.value;
+    if(value == null) {
+      return CharBuffer.wrap(this.source, this.start, this.end);
+    }
+    return value;
+  }
+
+  /**
+   * Get the index into the lexed input where this token starts.
+   *
+   * <p>If the position is unknown, {@code -1} will be returned.</p>
+   *
+   * @return the start index, inclusive
+   * @since 4.1.0
+   */
+  public int start() {
+    return this.start;
+  }
+
+  /**
+   * Get the index into the lexed input where this token ends.
+   *
+   * <p>If the position is unknown, {@code -1} will be returned.</p>
+   *
+   * @return the end index, exclusive
+   * @since 4.1.0
+   */
+  public int end() {
+    return this.end;
   }
 
   /**
@@ -121,7 +192,7 @@ public final class Token implements Examinable {
   public @NonNull Stream<? extends ExaminableProperty> examinableProperties() {
     return Stream.of(
       ExaminableProperty.of("type", this.type),
-      ExaminableProperty.of("value", this.value)
+      ExaminableProperty.of("value", this.value())
     );
   }
 
@@ -0,0 +1,313 @@
+/*
+ * This file is part of adventure-text-minimessage, licensed under the MIT License.
+ *
+ * Copyright (c) 2018-2020 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.adventure.text.minimessage.parser;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.RandomAccess;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * The tokens of a lexed input, stored as parallel arrays of types and positions.
+ *
+ * <p>The lexer writes into this buffer and the parser reads from it by index, so no {@link Token} has to be
+ * created for most of the input. Viewed as a list, tokens are created lazily when they are first asked for.
+ * The list view can't be modified.</p>
+ *
+ * <p>A buffer can also be {@link MiniMessageLexer#stream() streamed}, in which case tokens are only lexed once
+ * they are asked for by {@link #has(int)} and the parser drops them when it is done with them.</p>
+ *
+ * @since 4.1.0
+ */
+public final class TokenBuffer extends AbstractList<Token> implements RandomAccess {
+  private static final TokenType[] TYPES = TokenType.values();
+  private static final int DEFAULT_CAPACITY = 16;
+
+  private @Nullable CharSequence source;
+  private byte[] types;
+  private int[] starts;
+  private int[] ends;
+  // values of tokens that aren't a range of the source, allocated when the first one is added
+  private @Nullable String @Nullable [] values;
+  private @Nullable Token @Nullable [] views;
+  // the index of the first token that is still held, only more than zero while streaming
+  private int offset;
+  private int count;
+  private @Nullable TokenSource lexer;
+  private boolean streaming;
+
+  TokenBuffer() {
+    this(DEFAULT_CAPACITY);
+  }
+
+  private TokenBuffer(final int capacity) {
+    this.types = new byte[capacity];
+    this.starts = new int[capacity];
+    this.ends = new int[capacity];
+  }
+
+  void reset(final @Nullable CharSequence source) {
+    if(this.values != null) {
+      Arrays.fill(this.values, 0, this.count, null);
+    }
+    if(this.views != null) {
+      Arrays.fill(this.views, 0, this.count, null);
+    }
+    this.source = source;
+    this.offset = 0;
+    this.count = 0;
+    this.lexer = null;
+    this.streaming = false;
+  }
+
+  void stream(final @NonNull TokenSource lexer) {
+    this.lexer = lexer;
+    this.streaming = true;
+  }
+
+  void add(final TokenType type, final int start, final int end) {
+    this.grow();
+    this.types[this.count] = (byte) type.ordinal();
+    this.starts[this.count] = start;
+    this.ends[this.count] = end;
+    this.count++;
+  }
+
+  void add(final TokenType type, final @NonNull String value, final int start, final int end) {
+    this.grow();
+    if(this.values == null) {
+      this.values = new String[this.types.length];
+    }
+    this.values[this.count] = value;
+    this.add(type, start, end);
+  }
+
+  // replaces the tokens from the first index up to the second with one token, only used before the buffer is read
+  void replace(final int from, final int to, final TokenType type, final @NonNull String value, final int start, final int end) {
+    final int moved = this.count - to;
+    System.arraycopy(this.types, to, this.types, from + 1, moved);
+    System.arraycopy(this.starts, to, this.starts, from + 1, moved);
+    System.arraycopy(this.ends, to, this.ends, from + 1, moved);
+    if(this.values == null) {
+      this.values = new String[this.types.length];
+    }
+    System.arraycopy(this.values, to, this.values, from + 1, moved);
+    Arrays.fill(this.values, from + 1 + moved, this.count, null);
+    if(this.views != null) {
+      System.arraycopy(this.views, to, this.views, from + 1, moved);
+      Arrays.fill(this.views, from + 1 + moved, this.count, null);
+      this.views[from] = null;
+    }
+    this.types[from] = (byte) type.ordinal();
+    this.values[from] = value;
+    this.starts[from] = start;
+    this.ends[from] = end;
+    this.count = from + 1 + moved;
+  }
+
+  private void grow() {
+    if(this.count == this.types.length) {
+      final int capacity = this.count * 2;
+      this.types = Arrays.copyOf(this.types, capacity);
+      this.starts = Arrays.copyOf(this.starts, capacity);
+      this.ends = Arrays.copyOf(this.ends, capacity);
+      if(this.values != null) {
+        this.values = Arrays.copyOf(this.values, capacity);
+      }
+      if(this.views != null) {
+        this.views = Arrays.copyOf(this.views, capacity);
+      }
+    }
+  }
+
+  /**
+   * Test if there is a token at the provided index, lexing more of the input if this buffer is streamed.
+   *
+   * @param index the index
+   * @return if there is a token at the index
+   * @since 4.1.0
+   */
+  public boolean has(final int index) {
+    while(index - this.offset >= this.count) {
+      if(this.lexer == null) {
+        return false;
+      }
+      try {
+        if(!this.lexer.advance()) {
+          this.lexer = null;
+        }
+      } catch(final IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Drops all tokens before the provided index if this buffer is streamed, as they won't be asked for anymore.
+   *
+   * @param index the index of the first token to keep
+   * @since 4.1.0
+   */
+  public void discard(final int index) {
+    final int drop = index - this.offset;
+    if(!this.streaming || drop <= 0) {
+      return;
+    }
+    final int keep = this.count - drop;
+    System.arraycopy(this.types, drop, this.types, 0, keep);
+    System.arraycopy(this.starts, drop, this.starts, 0, keep);
+    System.arraycopy(this.ends, drop, this.ends, 0, keep);
+    if(this.values != null) {
+      System.arraycopy(this.values, drop, this.values, 0, keep);
+      Arrays.fill(this.values, keep, this.count, null);
+    }
+    if(this.views != null) {
+      System.arraycopy(this.views, drop, this.views, 0, keep);
+      Arrays.fill(this.views, keep, this.count, null);
+    }
+    this.offset = index;
+    this.count = keep;
+  }
+
+  /**
+   * Get the type of the token at the provided index.
+   *
+   * @param index the index
+   * @return the token type
+   * @since 4.1.0
+   */
+  public TokenType type(final int index) {
+    return TYPES[this.types[this.check(index)]];
+  }
+
+  /**
+   * Get the value of the token at the provided index.
+   *
+   * @param index the index
+   * @return the token value
+   * @see Token#value()
+   * @since 4.1.0
+   */
+  public String value(final int index) {
+    final int i = this.check(index);
+    if(this.values != null && this.values[i] != null) {
+      return this.values[i];
+    }
+    final TokenType type = TYPES[this.types[i]];
+    if(type == TokenType.STRING || type == TokenType.NAME) {
+      return this.source.subSequence(this.starts[i], this.ends[i]).toString();
+    }
+    return type.value();
+  }
+
+  /**
+   * Get the index into the lexed input where the token at the provided index starts.
+   *
+   * @param index the index
+   * @return the start index, inclusive
+   * @see Token#start()
+   * @since 4.1.0
+   */
+  public int start(final int index) {
+    return this.starts[this.check(index)];
+  }
+
+  /**
+   * Get the index into the lexed input where the token at the provided index ends.
+   *
+   * @param index the index
+   * @return the end index, exclusive
+   * @see Token#end()
+   * @since 4.1.0
+   */
+  public int end(final int index) {
+    return this.ends[this.check(index)];
+  }
+
+  @Override
+  public Token get(final int index) {
+    final int i = this.check(index);
+    if(this.views == null) {
+      this.views = new Token[this.types.length];
+    }
+    // racing threads create equal tokens, so this doesn't need to be synchronized
+    Token token = this.views[i];
+    if(token == null) {
+      final TokenType type = TYPES[this.types[i]];
+      if(this.values != null && this.values[i] != null) {
+        token = new Token(type, this.values[i], this.starts[i], this.ends[i]);
+      } else if(type == TokenType.STRING || type == TokenType.NAME) {
+        token = Token.slice(type, this.source, this.starts[i], this.ends[i]);
+      } else {
+        token = new Token(type, this.starts[i], this.ends[i]);
+      }
+      this.views[i] = token;
+    }
+    return token;
+  }
+
+  // while streaming, this is the number of tokens lexed so far, including dropped ones
+  @Override
+  public int size() {
+    return this.offset + this.count;
+  }
+
+  /**
+   * Create a copy of this buffer that is trimmed to its size.
+   *
+   * @return a copy of this buffer
+   * @since 4.1.0
+   */
+  public @NonNull TokenBuffer copy() {
+    final TokenBuffer copy = new TokenBuffer(Math.max(this.count, 1));
+    copy.source = this.source;
+    System.arraycopy(this.types, 0, copy.types, 0, this.count);
+    System.arraycopy(this.starts, 0, copy.starts, 0, this.count);
+    System.arraycopy(this.ends, 0, copy.ends, 0, this.count);
+    if(this.values != null) {
+      copy.values = Arrays.copyOf(this.values, copy.types.length);
+    }
+    copy.offset = this.offset;
+    copy.count = this.count;
+    // copies are shared between threads, so their token views are created before they are published
+    copy.views = new Token[copy.types.length];
+    for(int i = 0; i < copy.count; i++) {
+      copy.get(copy.offset + i);
+    }
+    return copy;
+  }
+
+  // maps an index of the whole token stream to an index into the arrays
+  private int check(final int index) {
+    final int i = index - this.offset;
+    if(i < 0 || (i >= this.count && !this.has(index))) {
+      throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + this.size());
+    }
+    return i;
+  }
+}
@@ -25,8 +25,12 @@ package net.kyori.adventure.text.minimessage.transformation;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.function.Function;
 
 import net.kyori.adventure.text.ComponentLike;
@@ -52,6 +56,12 @@ public final class TransformationRegistry {
   }
 
   private final List<TransformationType<? extends Transformation>> types = new ArrayList<>();
+  private final List<Entry> entries = new ArrayList<>();
+  // lower case tag name -> first registered type declaring it
+  private final Map<String, Entry> names = new HashMap<>();
+  private final Set<String> oneTimeNames = new HashSet<>();
+  // types that have to be tested by predicate, either for a name prefix or because they declare no names
+  private final List<Entry> scanned = new ArrayList<>();
 
   /**
    * Create a transformation registry with default transformations.
@@ -93,6 +103,10 @@ public final class TransformationRegistry {
    */
   public void clear() {
     this.types.clear();
+    this.entries.clear();
+    this.names.clear();
+    this.oneTimeNames.clear();
+    this.scanned.clear();
   }
 
   /**
@@ -103,7 +117,28 @@ public final class TransformationRegistry {
    * @since 4.1.0
    */
   public <T extends Transformation> void register(final TransformationType<T> type) {
+    final Entry entry = new Entry(this.types.size(), type);
     this.types.add(type);
+    this.entries.add(entry);
+    for(final String name : type.names) {
+      this.names.putIfAbsent(name, entry);
+      if(entry.oneTime) {
+        this.oneTimeNames.add(name);
+      }
+    }
+    if(type.prefix != null || type.names.isEmpty()) {
+      this.scanned.add(entry);
+    }
+  }
+
+  /**
+   * Get the registered transformation types, in the order they were registered.
+   *
+   * @return an unmodifiable view of the registered types
+   * @since 4.1.0
+   */
+  public List<TransformationType<? extends Transformation>> types() {
+    return Collections.unmodifiableList(this.types);
   }
 
   /**
@@ -123,18 +158,79 @@ public final class TransformationRegistry {
     if(potentialTemplate != null) {
       return this.tryLoad(new TemplateTransformation(new Template.ComponentTemplate(name, potentialTemplate.asComponent())), name, inners, context);
     }
-    // then check our registry
-    for(final TransformationType<? extends Transformation> type : this.types) {
-      if(type.canParse.test(name)) {
-        return this.tryLoad(type.parser.parse(), name, inners, context);
-      } else if(templates.containsKey(name)) {
-        return this.tryLoad(new TemplateTransformation(templates.get(name)), name, inners, context);
-      }
+    // then check our registry, the first registered type wins over templates, the others don't
+    if(this.types.isEmpty()) {
+      return null;
+    }
+    final Entry entry = this.find(name);
+    if(entry != null && entry.index == 0) {
+      return this.load(entry.type, name, inners, context);
+    } else if(templates.containsKey(name)) {
+      return this.tryLoad(new TemplateTransformation(templates.get(name)), name, inners, context);
+    } else if(entry != null) {
+      return this.load(entry.type, name, inners, context);
     }
 
     return null;
   }
 
+  private @Nullable Entry find(final String name) {
+    final String key = fold(name);
+    if(key == null) {
+      // case folding of non-ascii names is left to the types
+      for(final Entry entry : this.entries) {
+        if(entry.type.canParse.test(name)) {
+          return entry;
+        }
+      }
+      return null;
+    }
+    final Entry named = this.names.get(key);
+    for(final Entry entry : this.scanned) {
+      if(named != null && entry.index > named.index) {
+        break;
+      }
+      if((entry.type.prefix == null || name.startsWith(entry.type.prefix)) && entry.type.canParse.test(name)) {
+        return entry;
+      }
+    }
+    return named;
+  }
+
+  private static @Nullable String fold(final String name) {
+    char[] folded = null;
+    for(int i = 0; i < name.length(); i++) {
+      final char c = name.charAt(i);
+      if(c >= 0x80) {
+        return null;
+      } else if(c >= 'A' && c <= 'Z') {
+        if(folded == null) {
+          folded = name.toCharArray();
+        }
+        folded[i] = (char) (c + ('a' - 'A'));
+      }
+    }
+    return folded == null ? name : new String(folded);
+  }
+
+  private <T extends Transformation> @Nullable Transformation load(final TransformationType<T> type, final String name, final List<Token> inners, final Context context) {
+    // only the declared names are shared, arguments and other spellings come from user input and are unbounded
+    if(type.interned == null || !inners.isEmpty() || !type.names.contains(name)) {
+      return this.tryLoad(type.parser.parse(), name, inners, context);
+    }
+    final T existing = type.interned.get(name);
+    if(existing != null) {
+      return existing;
+    }
+    final T transformation = type.parser.parse();
+    if(this.tryLoad(transformation, name, inners, context) == null) {
+      return null;
+    }
+    transformation.context(null);
+    final T previous = type.interned.putIfAbsent(name, transformation);
+    return previous != null ? previous : transformation;
+  }
+
   private Transformation tryLoad(final Transformation transformation, final String name, final List<Token> inners, final Context context) {
     try {
       transformation.context(context);
@@ -170,12 +266,7 @@ public final class TransformationRegistry {
    * @since 4.1.0
    */
   public boolean exists(final String name) {
-    for(final TransformationType<? extends Transformation> type : this.types) {
-      if(type.canParse.test(name)) {
-        return true;
-      }
-    }
-    return false;
+    return this.find(name) != null;
   }
 
   /**
@@ -186,11 +277,27 @@ public final class TransformationRegistry {
    * @since 4.1.0
    */
   public boolean couldBeOnetimeTransformation(final String name) {
-    for(final TransformationType<? extends Transformation> type : this.types) {
-      if(type.canParse.test(name) && type.parser.parse() instanceof OneTimeTransformation) {
+    final String key = fold(name);
+    if(key != null && this.oneTimeNames.contains(key)) {
+      return true;
+    }
+    for(final Entry entry : key == null ? this.entries : this.scanned) {
+      if(entry.oneTime && entry.type.canParse.test(name)) {
         return true;
       }
     }
     return false;
   }
+
+  private static final class Entry {
+    final int index;
+    final TransformationType<? extends Transformation> type;
+    final boolean oneTime;
+
+    Entry(final int index, final TransformationType<? extends Transformation> type) {
+      this.index = index;
+      this.type = type;
+      this.oneTime = type.parser.parse() instanceof OneTimeTransformation;
+    }
+  }
 }
@@ -36,8 +36,20 @@ import net.kyori.adventure.text.minimessage.transformation.inbuild.RainbowTransf
 import net.kyori.adventure.text.minimessage.transformation.inbuild.ResetTransformation;
 import net.kyori.adventure.text.minimessage.transformation.inbuild.TranslatableTransformation;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.function.Predicate;
 
+import net.kyori.adventure.text.format.NamedTextColor;
+import net.kyori.adventure.text.format.TextDecoration;
+import net.kyori.adventure.text.minimessage.Tokens;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
 /**
  * Available types of transformation.
  *
@@ -45,24 +57,61 @@ import java.util.function.Predicate;
  * @since 4.1.0
  */
 public final class TransformationType<T extends Transformation> {
-  public static final TransformationType<ColorTransformation> COLOR = new TransformationType<>(ColorTransformation::canParse, new ColorTransformation.Parser());
-  public static final TransformationType<DecorationTransformation> DECORATION = new TransformationType<>(DecorationTransformation::canParse, new DecorationTransformation.Parser());
-  public static final TransformationType<HoverTransformation> HOVER_EVENT = new TransformationType<>(HoverTransformation::canParse, new HoverTransformation.Parser());
-  public static final TransformationType<ClickTransformation> CLICK_EVENT = new TransformationType<>(ClickTransformation::canParse, new ClickTransformation.Parser());
-  public static final TransformationType<KeybindTransformation> KEYBIND = new TransformationType<>(KeybindTransformation::canParse, new KeybindTransformation.Parser());
-  public static final TransformationType<TranslatableTransformation> TRANSLATABLE = new TransformationType<>(TranslatableTransformation::canParse, new TranslatableTransformation.Parser());
-  public static final TransformationType<InsertionTransformation> INSERTION = new TransformationType<>(InsertionTransformation::canParse, new InsertionTransformation.Parser());
-  public static final TransformationType<FontTransformation> FONT = new TransformationType<>(FontTransformation::canParse, new FontTransformation.Parser());
-  public static final TransformationType<GradientTransformation> GRADIENT = new TransformationType<>(GradientTransformation::canParse, new GradientTransformation.Parser());
-  public static final TransformationType<RainbowTransformation> RAINBOW = new TransformationType<>(RainbowTransformation::canParse, new RainbowTransformation.Parser());
-  public static final TransformationType<ResetTransformation> RESET = new TransformationType<>(ResetTransformation::canParse, new ResetTransformation.Parser());
-  public static final TransformationType<PreTransformation> PRE = new TransformationType<>(PreTransformation::canParse, new PreTransformation.Parser());
+  public static final TransformationType<ColorTransformation> COLOR = new TransformationType<>(ColorTransformation::canParse, new ColorTransformation.Parser(), true, Tokens.HEX, colorNames());
+  public static final TransformationType<DecorationTransformation> DECORATION = new TransformationType<>(DecorationTransformation::canParse, new DecorationTransformation.Parser(), true, null, decorationNames());
+  public static final TransformationType<HoverTransformation> HOVER_EVENT = new TransformationType<>(HoverTransformation::canParse, new HoverTransformation.Parser(), false, null, Tokens.HOVER);
+  public static final TransformationType<ClickTransformation> CLICK_EVENT = new TransformationType<>(ClickTransformation::canParse, new ClickTransformation.Parser(), false, null, Tokens.CLICK);
+  public static final TransformationType<KeybindTransformation> KEYBIND = new TransformationType<>(KeybindTransformation::canParse, new KeybindTransformation.Parser(), false, null, Tokens.KEYBIND);
+  public static final TransformationType<TranslatableTransformation> TRANSLATABLE = new TransformationType<>(TranslatableTransformation::canParse, new TranslatableTransformation.Parser(), false, null, Tokens.TRANSLATABLE, Tokens.TRANSLATABLE_2, Tokens.TRANSLATABLE_3);
+  public static final TransformationType<InsertionTransformation> INSERTION = new TransformationType<>(InsertionTransformation::canParse, new InsertionTransformation.Parser(), false, null, Tokens.INSERTION);
+  public static final TransformationType<FontTransformation> FONT = new TransformationType<>(FontTransformation::canParse, new FontTransformation.Parser(), false, null, Tokens.FONT);
+  public static final TransformationType<GradientTransformation> GRADIENT = new TransformationType<>(GradientTransformation::canParse, new GradientTransformation.Parser(), false, null, Tokens.GRADIENT);
+  public static final TransformationType<RainbowTransformation> RAINBOW = new TransformationType<>(RainbowTransformation::canParse, new RainbowTransformation.Parser(), false, null, Tokens.RAINBOW);
+  public static final TransformationType<ResetTransformation> RESET = new TransformationType<>(ResetTransformation::canParse, new ResetTransformation.Parser(), true, null, Tokens.RESET, Tokens.RESET_2);
+  public static final TransformationType<PreTransformation> PRE = new TransformationType<>(PreTransformation::canParse, new PreTransformation.Parser(), false, null, Tokens.PRE);
 
   final Predicate<String> canParse;
   final TransformationParser<T> parser;
 
+  final Set<String> names;
+  final @Nullable String prefix;
+  // loaded instances of argument-less tags by declared name, for types whose instances are immutable once loaded
+  final @Nullable ConcurrentMap<String, T> interned;
+
   TransformationType(final Predicate<String> canParse, final TransformationParser<T> parser) {
+    this(canParse, parser, false, null);
+  }
+
+  /**
+   * Creates a type that declares the tag names it handles, so registries can look it up by name.
+   *
+   * <p>Names are lower case, {@code canParse} must accept exactly these names (ignoring case) and names
+   * starting with {@code prefix}, if one is given.</p>
+   *
+   * <p>If {@code intern} is set, loaded transformations only depend on their name and arguments, don't use
+   * the parse context and are never modified after loading, so a single instance of every declared name
+   * without arguments can be shared by every parse.</p>
+   */
+  TransformationType(final Predicate<String> canParse, final TransformationParser<T> parser, final boolean intern, final @Nullable String prefix, final String... names) {
     this.canParse = canParse;
     this.parser = parser;
+    this.prefix = prefix;
+    this.names = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(names)));
+    this.interned = intern ? new ConcurrentHashMap<>() : null;
+  }
+
+  private static String[] colorNames() {
+    final Set<String> names = new HashSet<>(NamedTextColor.NAMES.keys());
+    names.addAll(ColorTransformation.aliases());
+    names.add(Tokens.COLOR);
+    names.add(Tokens.COLOR_2);
+    names.add(Tokens.COLOR_3);
+    return names.toArray(new String[0]);
+  }
+
+  private static String[] decorationNames() {
+    final Set<String> names = new HashSet<>(TextDecoration.NAMES.keys());
+    names.addAll(Arrays.asList(Tokens.BOLD_2, Tokens.ITALIC_2, Tokens.ITALIC_3, Tokens.UNDERLINED_2, Tokens.STRIKETHROUGH_2, Tokens.OBFUSCATED_2));
+    return names.toArray(new String[0]);
   }
 }
@@ -0,0 +1,103 @@
+/*
+ * This file is part of adventure-text-minimessage, licensed under the MIT License.
+ *
+ * Copyright (c) 2018-2020 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.adventure.text.minimessage.transformation.inbuild;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import net.kyori.adventure.text.minimessage.parser.Token;
+import net.kyori.adventure.text.minimessage.parser.TokenType;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+/**
+ * Reads the arguments of a tag from its tokens.
+ *
+ * <p>The lexer only emits separators outside of quotes and already unescapes quotes inside them,
+ * so arguments are split in a single pass over the tokens.</p>
+ */
+final class Arguments {
+  private Arguments() {
+  }
+
+  /**
+   * Splits the tokens into the arguments between their separators, removing the quotes around quoted arguments.
+   *
+   * <p>Like {@link String#split(String)}, trailing empty arguments are dropped, but at least one argument is returned.</p>
+   *
+   * @param args the tokens of the tag
+   * @param from the index of the first token to split
+   * @return the arguments
+   */
+  static @NonNull List<String> split(final @NonNull List<Token> args, final int from) {
+    final int size = args.size();
+    if(from >= size) {
+      return Collections.singletonList("");
+    }
+    final List<String> split = new ArrayList<>();
+    int start = from;
+    for(int i = from; i <= size; i++) {
+      if(i == size || args.get(i).type() == TokenType.PARAM_SEPARATOR) {
+        split.add(value(args, start, i));
+        start = i + 1;
+      }
+    }
+    int end = split.size();
+    while(end > 1 && split.get(end - 1).isEmpty()) {
+      end--;
+    }
+    return end == split.size() ? split : split.subList(0, end);
+  }
+
+  /**
+   * Gets the text of the tokens as one argument, removing the quotes around it if it is quoted.
+   *
+   * @param args the tokens of the tag
+   * @param from the index of the first token
+   * @return the argument
+   */
+  static @NonNull String joined(final @NonNull List<Token> args, final int from) {
+    return value(args, from, args.size());
+  }
+
+  private static @NonNull String value(final @NonNull List<Token> args, final int from, final int to) {
+    final boolean quoted = to - from >= 2 && closes(args.get(from).type(), args.get(to - 1).type());
+    final int start = quoted ? from + 1 : from;
+    final int end = quoted ? to - 1 : to;
+    if(start == end) {
+      return "";
+    } else if(end - start == 1) {
+      return args.get(start).value();
+    }
+    final StringBuilder value = new StringBuilder();
+    for(int i = start; i < end; i++) {
+      value.append(args.get(i).value());
+    }
+    return value.toString();
+  }
+
+  private static boolean closes(final TokenType start, final TokenType end) {
+    return start == TokenType.SINGLE_QUOTE_START && end == TokenType.SINGLE_QUOTE_END
+      || start == TokenType.DOUBLE_QUOTE_START && end == TokenType.DOUBLE_QUOTE_END;
+  }
+}
@@ -30,6 +30,8 @@ import java.util.stream.Stream;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.TextComponent;
 import net.kyori.adventure.text.event.ClickEvent;
+import net.kyori.adventure.text.format.Style;
+import net.kyori.adventure.text.format.StyleBuilderApplicable;
 import net.kyori.adventure.text.minimessage.Tokens;
 import net.kyori.adventure.text.minimessage.parser.ParsingException;
 import net.kyori.adventure.text.minimessage.parser.Token;
@@ -44,7 +46,7 @@ import org.checkerframework.checker.nullness.qual.NonNull;
  *
  * @since 4.1.0
  */
-public final class ClickTransformation extends Transformation {
+public final class ClickTransformation extends Transformation implements StyleBuilderApplicable {
   private ClickEvent.Action action;
   private String value;
 
@@ -89,6 +91,11 @@ public final class ClickTransformation extends Transformation {
     return component.clickEvent(ClickEvent.clickEvent(this.action, this.value));
   }
 
+  @Override
+  public void styleApply(final Style.@NonNull Builder style) {
+    style.clickEvent(ClickEvent.clickEvent(this.action, this.value));
+  }
+
   @Override
   public @NonNull Stream<? extends ExaminableProperty> examinableProperties() {
     return Stream.of(
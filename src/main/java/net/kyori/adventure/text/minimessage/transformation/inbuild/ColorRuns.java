@@ -0,0 +1,103 @@
+/*
+ * This file is part of adventure-text-minimessage, licensed under the MIT License.
+ *
+ * Copyright (c) 2018-2020 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.adventure.text.minimessage.transformation.inbuild;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.TextComponent;
+import net.kyori.adventure.text.format.Style;
+import net.kyori.adventure.text.format.TextColor;
+import net.kyori.adventure.text.minimessage.Context;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Appends text with one color per code point, grouping consecutive code points of similar colors into one component.
+ */
+final class ColorRuns {
+  private ColorRuns() {
+  }
+
+  /**
+   * Appends the content of a component to the parent, colored code point by code point.
+   *
+   * @param content the text to color
+   * @param style the style every part of the text gets, besides its color
+   * @param tolerance how far channels may differ from the first color of a group, {@code -1} to not group
+   * @param colors the color of every code point
+   * @param parent the builder to append to
+   */
+  static void append(final @NonNull String content, final @NonNull Style style, final int tolerance, final @NonNull TextColor @NonNull [] colors, final TextComponent.@NonNull Builder parent) {
+    TextColor runColor = null;
+    int runStart = 0;
+    int codePoint = 0;
+    for(int i = 0; i < content.length(); i += Character.charCount(content.codePointAt(i))) {
+      final TextColor color = colors[codePoint++];
+      if(runColor != null && !similar(runColor, color, tolerance)) {
+        parent.append(Component.text(content.substring(runStart, i), style.color(runColor)));
+        runStart = i;
+        runColor = null;
+      }
+      if(runColor == null) {
+        runColor = color;
+      }
+    }
+    if(runColor != null) {
+      parent.append(Component.text(content.substring(runStart), style.color(runColor)));
+    }
+  }
+
+  /**
+   * Appends the content of a component to the parent, with one component per code point that changes its color with
+   * every frame.
+   *
+   * @param content the text to color
+   * @param style the style every part of the text gets, besides its color
+   * @param frames the color of every code point, for every frame
+   * @param context the context to register the frame colors with
+   * @param parent the builder to append to
+   */
+  static void animate(final @NonNull String content, final @NonNull Style style, final @NonNull TextColor @NonNull [] @NonNull [] frames, final @NonNull Context context, final TextComponent.@NonNull Builder parent) {
+    int codePoint = 0;
+    for(int i = 0; i < content.length(); codePoint++) {
+      final int end = i + Character.charCount(content.codePointAt(i));
+      final TextColor[] colors = new TextColor[frames.length];
+      for(int frame = 0; frame < frames.length; frame++) {
+        colors[frame] = frames[frame][codePoint];
+      }
+      final Component component = Component.text(content.substring(i, end), style.color(colors[0]));
+      context.animate(component, colors);
+      parent.append(component);
+      i = end;
+    }
+  }
+
+  private static boolean similar(final @NonNull TextColor first, final @Nullable TextColor color, final int tolerance) {
+    if(tolerance < 0 || color == null) {
+      return false;
+    }
+    return Math.abs(first.red() - color.red()) <= tolerance
+      && Math.abs(first.green() - color.green()) <= tolerance
+      && Math.abs(first.blue() - color.blue()) <= tolerance;
+  }
+}
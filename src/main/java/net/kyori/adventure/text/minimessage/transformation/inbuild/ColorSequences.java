@@ -0,0 +1,153 @@
+/*
+ * This file is part of adventure-text-minimessage, licensed under the MIT License.
+ *
+ * Copyright (c) 2018-2020 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.adventure.text.minimessage.transformation.inbuild;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.IntFunction;
+import net.kyori.adventure.text.format.TextColor;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+/**
+ * A bounded cache of the colors gradients and rainbows give to code points.
+ *
+ * <p>Parsing the same tag over text of the same length again only has to look the colors up. The colors themselves are
+ * interned, so equal colors of different sequences share one instance.</p>
+ */
+final class ColorSequences {
+  static final int MAXIMUM_SIZE = 256;
+  static final int MAXIMUM_LENGTH = 4096;
+  private static final int INTERNED_MASK = 4095;
+
+  private static final Sequences SEQUENCES = new Sequences();
+  private static final TextColor[] INTERNED = new TextColor[INTERNED_MASK + 1];
+
+  private ColorSequences() {
+  }
+
+  /**
+   * Gets the cached sequence for a key, or computes and caches it.
+   *
+   * <p>The returned array is shared and must not be modified.</p>
+   *
+   * @param key the inputs the sequence is computed from
+   * @param compute computes the sequence for the amount of code points of the key
+   * @return the sequence
+   */
+  static TextColor @NonNull [] get(final @NonNull Key key, final @NonNull IntFunction<TextColor[]> compute) {
+    if(key.count > MAXIMUM_LENGTH) {
+      return compute.apply(key.count);
+    }
+    TextColor[] sequence;
+    synchronized(SEQUENCES) {
+      sequence = SEQUENCES.get(key);
+    }
+    if(sequence == null) {
+      sequence = compute.apply(key.count);
+      synchronized(SEQUENCES) {
+        SEQUENCES.put(key, sequence);
+      }
+    }
+    return sequence;
+  }
+
+  /**
+   * Gets an interned color for the given channels.
+   *
+   * @param red the red channel
+   * @param green the green channel
+   * @param blue the blue channel
+   * @return the color
+   */
+  static @NonNull TextColor color(final int red, final int green, final int blue) {
+    final int value = (red & 0xff) << 16 | (green & 0xff) << 8 | (blue & 0xff);
+    // a racy table is fine here, colors are immutable and a lost write only costs a new instance
+    final int slot = (value ^ (value >>> 12)) & INTERNED_MASK;
+    final TextColor interned = INTERNED[slot];
+    if(interned != null && interned.value() == value) {
+      return interned;
+    }
+    final TextColor color = TextColor.color(value);
+    INTERNED[slot] = color;
+    return color;
+  }
+
+  /**
+   * The inputs a sequence is computed from.
+   */
+  static final class Key {
+    private final int[] colors;
+    private final double first;
+    private final double second;
+    private final int count;
+    private final int hash;
+
+    /**
+     * Creates a key.
+     *
+     * @param colors the color values and flags of the tag
+     * @param first the first parameter of the tag
+     * @param second the second parameter of the tag
+     * @param count the amount of code points
+     */
+    Key(final int @NonNull [] colors, final double first, final double second, final int count) {
+      this.colors = colors;
+      this.first = first;
+      this.second = second;
+      this.count = count;
+      this.hash = 31 * (31 * (31 * Arrays.hashCode(colors) + Double.hashCode(first)) + Double.hashCode(second)) + count;
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+      if(this == other) return true;
+      if(!(other instanceof Key)) return false;
+      final Key that = (Key) other;
+      return this.hash == that.hash
+        && this.count == that.count
+        && Double.compare(this.first, that.first) == 0
+        && Double.compare(this.second, that.second) == 0
+        && Arrays.equals(this.colors, that.colors);
+    }
+
+    @Override
+    public int hashCode() {
+      return this.hash;
+    }
+  }
+
+  private static final class Sequences extends LinkedHashMap<Key, TextColor[]> {
+    private static final long serialVersionUID = 42L;
+
+    Sequences() {
+      super(16, 0.75f, true);
+    }
+
+    @Override
+    protected boolean removeEldestEntry(final Map.Entry<Key, TextColor[]> eldest) {
+      return this.size() > MAXIMUM_SIZE;
+    }
+  }
+}
@@ -23,15 +23,19 @@
  */
 package net.kyori.adventure.text.minimessage.transformation.inbuild;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 import java.util.stream.Stream;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.TextComponent;
 import net.kyori.adventure.text.format.NamedTextColor;
+import net.kyori.adventure.text.format.Style;
+import net.kyori.adventure.text.format.StyleBuilderApplicable;
 import net.kyori.adventure.text.format.TextColor;
 import net.kyori.adventure.text.minimessage.Tokens;
 import net.kyori.adventure.text.minimessage.parser.ParsingException;
@@ -46,7 +50,7 @@ import org.checkerframework.checker.nullness.qual.NonNull;
  *
  * @since 4.1.0
  */
-public final class ColorTransformation extends Transformation {
+public final class ColorTransformation extends Transformation implements StyleBuilderApplicable {
 
   private static Map<String, String> colorAliases = new HashMap<>();
 
@@ -68,7 +72,17 @@ public final class ColorTransformation extends Transformation {
       || name.equalsIgnoreCase(Tokens.COLOR_3)
       || TextColor.fromHexString(name) != null
       || NamedTextColor.NAMES.value(name.toLowerCase(Locale.ROOT)) != null
-      || colorAliases.containsKey(name);
+      || colorAliases.containsKey(name.toLowerCase(Locale.ROOT));
+  }
+
+  /**
+   * Get the alternative names accepted for named colors.
+   *
+   * @return the lower case color aliases
+   * @since 4.1.0
+   */
+  public static Set<String> aliases() {
+    return Collections.unmodifiableSet(colorAliases.keySet());
   }
 
   private TextColor color;
@@ -88,8 +102,9 @@ public final class ColorTransformation extends Transformation {
       }
     }
 
-    if(colorAliases.containsKey(name)) {
-      name = colorAliases.get(name);
+    final String alias = colorAliases.get(name.toLowerCase(Locale.ROOT));
+    if(alias != null) {
+      name = alias;
     }
 
     if(name.charAt(0) == '#') {
@@ -108,6 +123,11 @@ public final class ColorTransformation extends Transformation {
     return component.color(this.color);
   }
 
+  @Override
+  public void styleApply(final Style.@NonNull Builder style) {
+    style.color(this.color);
+  }
+
   @Override
   public @NonNull Stream<? extends ExaminableProperty> examinableProperties() {
     return Stream.of(ExaminableProperty.of("color", this.color));
@@ -29,6 +29,8 @@ import java.util.Objects;
 import java.util.stream.Stream;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.TextComponent;
+import net.kyori.adventure.text.format.Style;
+import net.kyori.adventure.text.format.StyleBuilderApplicable;
 import net.kyori.adventure.text.format.TextDecoration;
 import net.kyori.adventure.text.minimessage.Tokens;
 import net.kyori.adventure.text.minimessage.parser.ParsingException;
@@ -43,7 +45,7 @@ import org.checkerframework.checker.nullness.qual.NonNull;
  *
  * @since 4.1.0
  */
-public final class DecorationTransformation extends Transformation {
+public final class DecorationTransformation extends Transformation implements StyleBuilderApplicable {
   /**
    * Get if this transformation can handle the provided tag name.
    *
@@ -101,6 +103,11 @@ public final class DecorationTransformation extends Transformation {
     return component.decorate(this.decoration);
   }
 
+  @Override
+  public void styleApply(final Style.@NonNull Builder style) {
+    style.decorate(this.decoration);
+  }
+
   @Override
   public @NonNull Stream<? extends ExaminableProperty> examinableProperties() {
     return Stream.of(ExaminableProperty.of("decoration", this.decoration));
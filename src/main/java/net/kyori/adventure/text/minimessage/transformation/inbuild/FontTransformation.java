@@ -29,6 +29,8 @@ import java.util.stream.Stream;
 import net.kyori.adventure.key.Key;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.TextComponent;
+import net.kyori.adventure.text.format.Style;
+import net.kyori.adventure.text.format.StyleBuilderApplicable;
 import net.kyori.adventure.text.minimessage.Tokens;
 import net.kyori.adventure.text.minimessage.parser.ParsingException;
 import net.kyori.adventure.text.minimessage.parser.Token;
@@ -43,7 +45,7 @@ import org.checkerframework.checker.nullness.qual.NonNull;
  *
  * @since 4.1.0
  */
-public final class FontTransformation extends Transformation {
+public final class FontTransformation extends Transformation implements StyleBuilderApplicable {
   /**
    * Get if this transformation can handle the provided tag name.
    *
@@ -80,6 +82,11 @@ public final class FontTransformation extends Transformation {
     return component.style(component.style().font(this.font));
   }
 
+  @Override
+  public void styleApply(final Style.@NonNull Builder style) {
+    style.font(this.font);
+  }
+
   @Override
   public @NonNull Stream<? extends ExaminableProperty> examinableProperties() {
     return Stream.of(ExaminableProperty.of("font", this.font));
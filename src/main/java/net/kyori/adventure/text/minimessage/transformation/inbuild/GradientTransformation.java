@@ -30,11 +30,11 @@ import java.util.Deque;
 import java.util.List;
 import java.util.Locale;
 import java.util.Objects;
-import java.util.PrimitiveIterator;
 import java.util.stream.Stream;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.TextComponent;
 import net.kyori.adventure.text.format.NamedTextColor;
+import net.kyori.adventure.text.format.Style;
 import net.kyori.adventure.text.format.TextColor;
 import net.kyori.adventure.text.minimessage.Tokens;
 import net.kyori.adventure.text.minimessage.parser.ParsingException;
@@ -55,6 +55,7 @@ import org.checkerframework.checker.nullness.qual.NonNull;
 public final class GradientTransformation extends OneTimeTransformation implements Inserting {
   private int index = 0;
   private int colorIndex = 0;
+  private int tolerance = -1;
 
   private float factorStep = 0;
   private TextColor[] colors;
@@ -78,22 +79,20 @@ public final class GradientTransformation extends OneTimeTransformation implemen
   @Override
   public void load(final String name, final List<Token> args) {
     super.load(name, args);
+    this.tolerance = this.context.colorTolerance();
 
     if(!args.isEmpty()) {
       final List<TextColor> textColors = new ArrayList<>();
+      float phase = 0;
       for(int i = 0; i < args.size(); i++) {
         final Token arg = args.get(i);
         if(arg.type() == TokenType.STRING) {
           // last argument? maybe this is the phase?
           if(i == args.size() - 1) {
             try {
-              this.phase = Float.parseFloat(arg.value());
-              if(this.phase < -1f || this.phase > 1f) {
-                throw new ParsingException(String.format("Gradient phase is out of range (%s). Must be in the range [-1.0f, 1.0f] (inclusive).", this.phase), -1);
-              }
-              if(this.phase < 0) {
-                this.negativePhase = true;
-                this.phase = 1 + this.phase;
+              phase = Float.parseFloat(arg.value());
+              if(phase < -1f || phase > 1f) {
+                throw new ParsingException(String.format("Gradient phase is out of range (%s). Must be in the range [-1.0f, 1.0f] (inclusive).", phase), -1);
               }
               break;
             } catch(final NumberFormatException ignored) {
@@ -115,10 +114,7 @@ public final class GradientTransformation extends OneTimeTransformation implemen
       if(textColors.size() < 2) {
         throw new ParsingException("Invalid gradient, not enough colors. Gradients must have at least two colors.", -1);
       }
-      this.colors = textColors.toArray(new TextColor[0]);
-      if(this.negativePhase) {
-        Collections.reverse(Arrays.asList(this.colors));
-      }
+      this.phase(textColors.toArray(new TextColor[0]), phase);
     } else {
       this.colors = new TextColor[] {TextColor.fromHexString("#ffffff"), TextColor.fromHexString("#000000")};
     }
@@ -130,22 +126,13 @@ public final class GradientTransformation extends OneTimeTransformation implemen
       final TextComponent textComponent = (TextComponent) current;
       final String content = textComponent.content();
 
-      // init
-      final int size = content.length();
-      final int sectorLength = size / (this.colors.length - 1);
-      this.factorStep = 1.0f / (sectorLength + this.index);
-      this.phase = this.phase * sectorLength;
-      this.index = 0;
-
       // apply
-      int charSize;
-      final char[] holder = new char[2];
-      for(final PrimitiveIterator.OfInt it = content.codePoints().iterator(); it.hasNext();) {
-        charSize = Character.toChars(it.nextInt(), holder, 0);
-        Component comp = Component.text(new String(holder, 0, charSize));
-        comp = this.merge(comp, current);
-        comp = comp.color(this.color());
-        parent.append(comp);
+      final Style style = this.merge(Component.empty(), current).style();
+      final int frames = this.context.frames();
+      if(frames == 1) {
+        ColorRuns.append(content, style, this.tolerance, this.colors(content), parent);
+      } else {
+        ColorRuns.animate(content, style, this.frames(content, frames), this.context, parent);
       }
 
       return null;
@@ -154,6 +141,67 @@ public final class GradientTransformation extends OneTimeTransformation implemen
     throw new ParsingException("Expected TextComponent, got: " + current.getClass().toString(), -1);
   }
 
+  // a negative phase runs through the colors backwards
+  private void phase(final TextColor[] colors, final float phase) {
+    this.colors = colors;
+    this.negativePhase = phase < 0;
+    this.phase = this.negativePhase ? 1 + phase : phase;
+    if(this.negativePhase) {
+      Collections.reverse(Arrays.asList(this.colors));
+    }
+  }
+
+  private TextColor[] colors(final String content) {
+    // init
+    final int size = content.length();
+    final int sectorLength = size / (this.colors.length - 1);
+    this.factorStep = 1.0f / (sectorLength + this.index);
+    this.phase = this.phase * sectorLength;
+    this.index = 0;
+
+    final int count = content.codePointCount(0, size);
+    return this.colorIndex != 0 ? this.sequence(count) : ColorSequences.get(this.sequenceKey(count), this::sequence);
+  }
+
+  // every further frame shifts the phase by 2 / count, wrapping around to stay within [-1, 1]
+  private TextColor[][] frames(final String content, final int count) {
+    final TextColor[] colors = this.colors.clone();
+    if(this.negativePhase) {
+      Collections.reverse(Arrays.asList(colors));
+    }
+    final float phase = this.negativePhase ? this.phase - 1 : this.phase;
+
+    final TextColor[][] frames = new TextColor[count][];
+    frames[0] = this.colors(content);
+    for(int frame = 1; frame < count; frame++) {
+      float shifted = phase + 2f * frame / count;
+      if(shifted > 1) {
+        shifted -= 2;
+      }
+      final GradientTransformation gradient = new GradientTransformation();
+      gradient.phase(colors.clone(), shifted);
+      frames[frame] = gradient.colors(content);
+    }
+    return frames;
+  }
+
+  private ColorSequences.Key sequenceKey(final int count) {
+    final int[] values = new int[this.colors.length + 1];
+    for(int i = 0; i < this.colors.length; i++) {
+      values[i] = this.colors[i].value();
+    }
+    values[this.colors.length] = this.negativePhase ? 1 : 0;
+    return new ColorSequences.Key(values, this.factorStep, this.phase, count);
+  }
+
+  private TextColor[] sequence(final int count) {
+    final TextColor[] sequence = new TextColor[count];
+    for(int i = 0; i < count; i++) {
+      sequence[i] = this.color();
+    }
+    return sequence;
+  }
+
   private TextColor color() {
     // color switch needed?
     if(this.factorStep * this.index > 1) {
@@ -176,7 +224,7 @@ public final class GradientTransformation extends OneTimeTransformation implemen
   }
 
   private TextColor interpolate(final TextColor color1, final TextColor color2, final float factor) {
-    return TextColor.color(
+    return ColorSequences.color(
             Math.round(color1.red() + factor * (color2.red() - color1.red())),
             Math.round(color1.green() + factor * (color2.green() - color1.green())),
             Math.round(color1.blue() + factor * (color2.blue() - color1.blue()))
@@ -29,6 +29,8 @@ import net.kyori.adventure.nbt.api.BinaryTagHolder;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.TextComponent;
 import net.kyori.adventure.text.event.HoverEvent;
+import net.kyori.adventure.text.format.Style;
+import net.kyori.adventure.text.format.StyleBuilderApplicable;
 import net.kyori.adventure.text.minimessage.Tokens;
 import net.kyori.adventure.text.minimessage.parser.ParsingException;
 import net.kyori.adventure.text.minimessage.parser.Token;
@@ -42,7 +44,6 @@ import org.checkerframework.checker.nullness.qual.NonNull;
 import java.util.List;
 import java.util.Objects;
 import java.util.UUID;
-import java.util.regex.Pattern;
 import java.util.stream.Stream;
 
 /**
@@ -50,10 +51,7 @@ import java.util.stream.Stream;
  *
  * @since 4.1.0
  */
-public final class HoverTransformation extends Transformation {
-  // https://regex101.com/r/wC2xT6/1 splits on ':', except when in single or double quotes, respecting escaped quotes.
-  private static final Pattern REALLY_DUM_SPLIT_PATTERN = Pattern.compile("(?s):(?=(?:((?<!\\\\)[\"'])(?:(?!(?<!\\\\)\\1).)*(?<!\\\\)\\1|\\\\.|[^\"'])*$)");
-
+public final class HoverTransformation extends Transformation implements StyleBuilderApplicable {
   /**
    * Get if this transformation can handle the provided tag name.
    *
@@ -80,68 +78,53 @@ public final class HoverTransformation extends Transformation {
       throw new ParsingException("Doesn't know how to turn " + args + " into a hover event", -1);
     }
 
-    final String string = Token.asValueString(args.subList(2, args.size()));
-
     this.action = (HoverEvent.Action<Object>) HoverEvent.Action.NAMES.value(args.get(0).value());
     if(this.action == (Object) HoverEvent.Action.SHOW_TEXT) {
-      this.value = context.parse(stripOuterQuotes(string));
+      this.value = context.parse(Arguments.joined(args, 2));
     } else if(this.action == (Object) HoverEvent.Action.SHOW_ITEM) {
-      this.value = this.parseShowItem(string);
+      this.value = this.parseShowItem(Arguments.split(args, 2));
     } else if(this.action == (Object) HoverEvent.Action.SHOW_ENTITY) {
-      this.value = this.parseShowEntity(string);
+      this.value = this.parseShowEntity(Arguments.split(args, 2));
     } else {
       throw new ParsingException("Don't know how to turn '" + args + "' into a hover event", -1);
     }
   }
 
-  private static @NonNull String stripOuterQuotes(final @NonNull String string) {
-    if(string.length() != 1 && startsAndEndsWithQuotes(string)) {
-      return string.substring(1).substring(0, string.length() - 2);
-    }
-    return string;
-  }
-
-  private static boolean startsAndEndsWithQuotes(final @NonNull String string) {
-    return string.startsWith("'") && string.endsWith("'") || string.startsWith("\"") && string.endsWith("\"");
-  }
-
-  private HoverEvent.@NonNull ShowItem parseShowItem(final @NonNull String value) {
+  private HoverEvent.@NonNull ShowItem parseShowItem(final @NonNull List<String> args) {
     try {
-      final String[] args = REALLY_DUM_SPLIT_PATTERN.split(value);
-      if(args.length == 0) {
+      if(args.isEmpty()) {
         throw new RuntimeException("Show item hover needs at least item id!");
       }
-      final Key key = Key.key(stripOuterQuotes(args[0]));
+      final Key key = Key.key(args.get(0));
       final int count;
-      if(args.length >= 2) {
-        count = Integer.parseInt(stripOuterQuotes(args[1]));
+      if(args.size() >= 2) {
+        count = Integer.parseInt(args.get(1));
       } else {
         count = 1;
       }
-      if(args.length == 3) {
-        return HoverEvent.ShowItem.of(key, count, BinaryTagHolder.of(stripOuterQuotes(args[2])));
+      if(args.size() == 3) {
+        return HoverEvent.ShowItem.of(key, count, BinaryTagHolder.of(args.get(2)));
       }
       return HoverEvent.ShowItem.of(key, count);
     } catch(final InvalidKeyException | NumberFormatException ex) {
-      throw new RuntimeException(String.format("Exception parsing show_item hover '%s'.", value), ex);
+      throw new RuntimeException(String.format("Exception parsing show_item hover '%s'.", String.join(":", args)), ex);
     }
   }
 
-  private HoverEvent.@NonNull ShowEntity parseShowEntity(final @NonNull String value) {
+  private HoverEvent.@NonNull ShowEntity parseShowEntity(final @NonNull List<String> args) {
     try {
-      final String[] args = REALLY_DUM_SPLIT_PATTERN.split(value);
-      if(args.length <= 1) {
+      if(args.size() <= 1) {
         throw new RuntimeException("Show entity hover needs at least type and uuid!");
       }
-      final Key key = Key.key(stripOuterQuotes(args[0]));
-      final UUID id = UUID.fromString(stripOuterQuotes(args[1]));
-      if(args.length == 3) {
-        final Component name = context.parse(stripOuterQuotes(args[2]));
+      final Key key = Key.key(args.get(0));
+      final UUID id = UUID.fromString(args.get(1));
+      if(args.size() == 3) {
+        final Component name = context.parse(args.get(2));
         return HoverEvent.ShowEntity.of(key, id, name);
       }
       return HoverEvent.ShowEntity.of(key, id);
     } catch(final IllegalArgumentException | InvalidKeyException ex) {
-      throw new RuntimeException(String.format("Exception parsing show_entity hover '%s'.", value), ex);
+      throw new RuntimeException(String.format("Exception parsing show_entity hover '%s'.", String.join(":", args)), ex);
     }
   }
 
@@ -150,6 +133,11 @@ public final class HoverTransformation extends Transformation {
     return component.hoverEvent(HoverEvent.hoverEvent(this.action, this.value));
   }
 
+  @Override
+  public void styleApply(final Style.@NonNull Builder style) {
+    style.hoverEvent(HoverEvent.hoverEvent(this.action, this.value));
+  }
+
   @Override
   public @NonNull Stream<? extends ExaminableProperty> examinableProperties() {
     return Stream.of(
@@ -28,6 +28,8 @@ import java.util.Objects;
 import java.util.stream.Stream;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.TextComponent;
+import net.kyori.adventure.text.format.Style;
+import net.kyori.adventure.text.format.StyleBuilderApplicable;
 import net.kyori.adventure.text.minimessage.Tokens;
 import net.kyori.adventure.text.minimessage.parser.ParsingException;
 import net.kyori.adventure.text.minimessage.parser.Token;
@@ -41,7 +43,7 @@ import org.checkerframework.checker.nullness.qual.NonNull;
  *
  * @since 4.1.0
  */
-public final class InsertionTransformation extends Transformation {
+public final class InsertionTransformation extends Transformation implements StyleBuilderApplicable {
   private String insertion;
 
   /**
@@ -74,6 +76,11 @@ public final class InsertionTransformation extends Transformation {
     return component.insertion(this.insertion);
   }
 
+  @Override
+  public void styleApply(final Style.@NonNull Builder style) {
+    style.insertion(this.insertion);
+  }
+
   @Override
   public @NonNull Stream<? extends ExaminableProperty> examinableProperties() {
     return Stream.of(ExaminableProperty.of("insertion", this.insertion));
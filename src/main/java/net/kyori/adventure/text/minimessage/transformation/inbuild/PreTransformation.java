@@ -25,6 +25,8 @@ package net.kyori.adventure.text.minimessage.transformation.inbuild;
 
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.TextComponent;
+import net.kyori.adventure.text.format.Style;
+import net.kyori.adventure.text.format.StyleBuilderApplicable;
 import net.kyori.adventure.text.minimessage.Tokens;
 import net.kyori.adventure.text.minimessage.transformation.Transformation;
 import net.kyori.adventure.text.minimessage.transformation.TransformationParser;
@@ -39,7 +41,7 @@ import java.util.stream.Stream;
  *
  * @since 4.1.0
  */
-public final class PreTransformation extends Transformation {
+public final class PreTransformation extends Transformation implements StyleBuilderApplicable {
   private static final PreTransformation INSTANCE = new PreTransformation();
 
   /**
@@ -61,6 +63,10 @@ public final class PreTransformation extends Transformation {
     return component;
   }
 
+  @Override
+  public void styleApply(final Style.@NonNull Builder style) {
+  }
+
   @Override
   public boolean equals(final Object other) {
     return other instanceof PreTransformation;
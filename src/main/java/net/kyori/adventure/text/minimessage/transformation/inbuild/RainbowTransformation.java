@@ -26,10 +26,10 @@ package net.kyori.adventure.text.minimessage.transformation.inbuild;
 import java.util.Deque;
 import java.util.List;
 import java.util.Objects;
-import java.util.PrimitiveIterator;
 import java.util.stream.Stream;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.TextComponent;
+import net.kyori.adventure.text.format.Style;
 import net.kyori.adventure.text.format.TextColor;
 import net.kyori.adventure.text.minimessage.Tokens;
 import net.kyori.adventure.text.minimessage.parser.ParsingException;
@@ -48,6 +48,7 @@ import org.checkerframework.checker.nullness.qual.NonNull;
  */
 public final class RainbowTransformation extends OneTimeTransformation implements Inserting {
   private int colorIndex = 0;
+  private int tolerance = -1;
 
   private float center = 128;
   private float width = 127;
@@ -72,6 +73,7 @@ public final class RainbowTransformation extends OneTimeTransformation implement
   @Override
   public void load(final String name, final List<Token> args) {
     super.load(name, args);
+    this.tolerance = this.context.colorTolerance();
 
     if(Token.oneString(args)) {
       try {
@@ -94,14 +96,20 @@ public final class RainbowTransformation extends OneTimeTransformation implement
       this.frequency = Math.PI * 2 / content.length();
 
       // apply
-      int charSize;
-      final char[] holder = new char[2];
-      for(final PrimitiveIterator.OfInt it = content.codePoints().iterator(); it.hasNext();) {
-        charSize = Character.toChars(it.nextInt(), holder, 0);
-        Component comp = Component.text(new String(holder, 0, charSize));
-        comp = this.merge(comp, current);
-        comp = comp.color(this.color(this.phase));
-        parent.append(comp);
+      final int count = content.codePointCount(0, content.length());
+      final int start = this.colorIndex;
+      this.colorIndex += count;
+      final Style style = this.merge(Component.empty(), current).style();
+      final int frames = this.context.frames();
+      if(frames == 1) {
+        ColorRuns.append(content, style, this.tolerance, this.colors(start, count, this.phase), parent);
+      } else {
+        // every further frame shifts the phase by a part of a full period
+        final TextColor[][] sequences = new TextColor[frames][];
+        for(int frame = 0; frame < frames; frame++) {
+          sequences[frame] = this.colors(start, count, (float) (this.phase + Math.PI * 2 * frame / frames));
+        }
+        ColorRuns.animate(content, style, sequences, this.context, parent);
       }
 
       return null;
@@ -110,12 +118,26 @@ public final class RainbowTransformation extends OneTimeTransformation implement
     throw new ParsingException("Expected Text Comp", -1);
   }
 
-  private TextColor color(final float phase) {
-    final int index = this.colorIndex++;
+  private TextColor[] colors(final int start, final int count, final float phase) {
+    if(start != 0) {
+      return this.sequence(start, count, phase);
+    }
+    return ColorSequences.get(new ColorSequences.Key(new int[0], phase, this.frequency, count), c -> this.sequence(0, c, phase));
+  }
+
+  private TextColor[] sequence(final int start, final int count, final float phase) {
+    final TextColor[] sequence = new TextColor[count];
+    for(int i = 0; i < count; i++) {
+      sequence[i] = this.color(phase, start + i);
+    }
+    return sequence;
+  }
+
+  private TextColor color(final float phase, final int index) {
     final int red = (int) (Math.sin(this.frequency * index + 2 + phase) * this.width + this.center);
     final int green = (int) (Math.sin(this.frequency * index + 0 + phase) * this.width + this.center);
     final int blue = (int) (Math.sin(this.frequency * index + 4 + phase) * this.width + this.center);
-    return TextColor.color(red, green, blue);
+    return ColorSequences.color(red, green, blue);
   }
 
   @Override
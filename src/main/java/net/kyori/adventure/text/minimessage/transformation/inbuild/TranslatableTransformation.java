@@ -27,7 +27,6 @@ import java.util.ArrayList;
 import java.util.Deque;
 import java.util.List;
 import java.util.Objects;
-import java.util.regex.Pattern;
 import java.util.stream.Stream;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.TextComponent;
@@ -49,8 +48,6 @@ import org.checkerframework.checker.nullness.qual.NonNull;
  * @since 4.1.0
  */
 public class TranslatableTransformation extends OneTimeTransformation implements Inserting {
-  private static final Pattern DUM_SPLIT_PATTERN = Pattern.compile("['\"]:['\"]");
-
   /**
    * Get if this transformation can handle the provided tag name.
    *
@@ -77,11 +74,7 @@ public class TranslatableTransformation extends OneTimeTransformation implements
 
     this.key = args.get(0).value();
     if(args.size() > 1) {
-      String string = Token.asValueString(args.subList(2, args.size()));
-      if(string.startsWith("'") || string.startsWith("\"")) {
-        string = string.substring(1).substring(0, string.length() - 2);
-      }
-      for(final String in : DUM_SPLIT_PATTERN.split(string)) {
+      for(final String in : Arguments.split(args, 2)) {
         this.inners.add(MiniMessage.get().parse(in)); // TODO this uses a hardcoded instance, there gotta be a better way
       }
     }
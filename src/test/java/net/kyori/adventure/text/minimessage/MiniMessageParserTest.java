@@ -58,8 +58,10 @@ import static net.kyori.adventure.text.format.NamedTextColor.YELLOW;
 import static net.kyori.adventure.text.format.Style.style;
 import static net.kyori.adventure.text.format.TextColor.color;
 import static net.kyori.adventure.text.format.TextDecoration.BOLD;
+import static net.kyori.adventure.text.format.TextDecoration.ITALIC;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 public class MiniMessageParserTest {
@@ -91,6 +93,27 @@ public class MiniMessageParserTest {
     assertEquals(out3, out4);
   }
 
+  @Test
+  void testTagNamesIgnoreCase() {
+    assertEquals(PARSER.parse("<gray>Hi</gray>"), PARSER.parse("<GREY>Hi</GREY>"));
+    assertEquals(PARSER.parse("<dark_gray>Hi"), PARSER.parse("<color:Dark_Grey>Hi"));
+    assertEquals(PARSER.parse("<bold>Hi"), PARSER.parse("<B>Hi"));
+    assertEquals(PARSER.parse("<#ff00ff>Hi"), PARSER.parse("<#FF00FF>Hi"));
+  }
+
+  @Test
+  void testNestedStylesAfterReset() {
+    final String input = "<red><bold><insert:test><hover:show_text:'hi'>A<reset>B<italic>C</italic><blue>D";
+    final Component expected = text()
+            .append(text("A", RED, BOLD).insertion("test").hoverEvent(showText(text("hi"))))
+            .append(text("B"))
+            .append(text("C").decorate(ITALIC))
+            .append(text("D", BLUE))
+            .build();
+
+    assertEquals(expected, PARSER.parse(input));
+  }
+
   @Test
   void testNewColor() {
     final String input1 = "<color:yellow>TEST<color:green> nested</color:green>Test";
@@ -172,6 +195,29 @@ public class MiniMessageParserTest {
     assertEquals(expected, PlainComponentSerializer.plain().serialize(comp));
   }
 
+  @Test
+  void testEscapeUnclosed() {
+    // used to backtrack for minutes, every separator doubled the work
+    final StringBuilder input = new StringBuilder("<hover:show_text");
+    for(int i = 0; i < 1000; i++) {
+      input.append(":aa");
+    }
+    assertEquals(input.toString(), PARSER.escapeTokens(input.toString()));
+    assertEquals(input.toString(), PARSER.stripTokens(input.toString()));
+    assertEquals("\\" + input + ">", PARSER.escapeTokens(input + ">"));
+    assertEquals("", PARSER.stripTokens(input + ">"));
+  }
+
+  @Test
+  void testEscapeEveryInner() {
+    final String input = "<hover:show_entity:'minecraft:pig':'<red>a':\"<blue>b\">";
+    final String expected = "\\<hover:show_entity:'minecraft:pig':'\\<red>a':\"\\<blue>b\">";
+
+    assertEquals(expected, PARSER.escapeTokens(input));
+    assertEquals("\\<hover:show_text:'\\<click:run_command:\"\\<red>x\">a\\<click:run_command:\"\\<blue>y\">'>b",
+      PARSER.escapeTokens("<hover:show_text:'<click:run_command:\"<red>x\">a<click:run_command:\"<blue>y\">'>b"));
+  }
+
   @Test
   @Disabled // TODO, better escape handling
   void testNoUnescape() {
@@ -654,6 +700,36 @@ public class MiniMessageParserTest {
     assertParsedEquals(expected, input);
   }
 
+  @Test
+  void testGradientGroupedColors() {
+    final Component same = text()
+        .append(text("||||", RED))
+        .append(text("!"))
+        .build();
+    assertEquals(same, MiniMessage.builder().groupColors(0).build().parse("<gradient:red:red>||||</gradient>!"));
+
+    final Component similar = text()
+        .append(text("||", WHITE))
+        .append(text("||", color(0xd5d5d5)))
+        .append(text("||", GRAY))
+        .append(text("||", color(0x808080)))
+        .append(text("||", DARK_GRAY))
+        .append(text("||", color(0x2a2a2a)))
+        .build();
+    assertEquals(similar, MiniMessage.builder().groupColors(24).build().parse("<gradient>||||||||||||</gradient>"));
+  }
+
+  @Test
+  void testGradientColorsAreShared() {
+    final Component first = PARSER.parse("<gradient:red:blue>shared</gradient><rainbow:2>colors");
+    final Component second = PARSER.parse("<gradient:red:blue>colors</gradient><rainbow:2>shared");
+
+    assertEquals(12, first.children().size());
+    for(int i = 0; i < first.children().size(); i++) {
+      assertSame(first.children().get(i).color(), second.children().get(i).color());
+    }
+  }
+
   @Test
   void testGradientWithHover() {
     final String input = "<yellow>Woo: <hover:show_text:'This is a test'><gradient>||||||||||||||||||||||||</gradient>!";
@@ -1144,6 +1220,26 @@ public class MiniMessageParserTest {
     assertParsedEquals(expected, input1);
   }
 
+  @Test
+  void testShowEntityHoverWithQuotedName() {
+    final UUID uuid = UUID.randomUUID();
+    final Component expected = text()
+            .content("test")
+            .hoverEvent(HoverEvent.showEntity(Key.key("minecraft", "zombie"), uuid, text("a:'b'", RED)))
+            .build();
+    final String input = String.format("<hover:show_entity:'minecraft:zombie':%s:'<red>a:\\'b\\''>test", uuid.toString());
+    final String input1 = String.format("<hover:show_entity:zombie:\"%s\":\"<red>a:'b'\">test", uuid.toString());
+    assertParsedEquals(expected, input);
+    assertParsedEquals(expected, input1);
+  }
+
+  @Test
+  void testTranslatableWithQuotedSeparator() {
+    final Component expected = translatable("test", text("a':'b", RED), text("c"), text("d"));
+    final String input = "<lang:test:'<red>a\\':\\'b':\"c\":d>";
+    assertParsedEquals(expected, input);
+  }
+
   @Test
   void testQuoteEscapingInArguments() {
     final Component expected = translatable("test", text("\"\""));
@@ -1189,6 +1285,29 @@ public class MiniMessageParserTest {
             Component.text("FOUR"));
   }
 
+  @Test
+  void testUnclosedTagWithParams() {
+    final Component expected = text()
+            .append(text("Hello ", RED))
+            .append(text("<foo:bar:'", RED))
+            .build();
+    final String input = "<red>Hello <foo:bar:'";
+
+    assertEquals(expected, MiniMessage.builder().parsingErrorMessageConsumer(messages -> {}).build().parse(input));
+  }
+
+  @Test
+  void testManyUnknownTags() {
+    final StringBuilder input = new StringBuilder();
+    final TextComponent.Builder expected = text();
+    for(int i = 0; i < 1000; i++) {
+      input.append("<foo>").append(i);
+      expected.append(text("<foo>")).append(text(String.valueOf(i)));
+    }
+
+    assertParsedEquals(expected.build(), input.toString());
+  }
+
   @Test
   @Disabled // GH-68, GH-93
   void testAngleBracketsShit() {
@@ -268,8 +268,56 @@ public class MiniMessageSerializerTest {
     this.test(input, expected);
   }
 
+  @Test
+  void testNestedHoverQuotes() {
+    final Component inner = text("say \"hi\"").hoverEvent(HoverEvent.showText(text("\"")));
+    final TextComponent.Builder input = text()
+            .content("test")
+            .hoverEvent(HoverEvent.showText(inner));
+    final String expected = "<hover:show_text:\"<hover:show_text:\\\"\\\\\"\\\">say \\\"hi\\\"\">test";
+    this.test(input, expected);
+  }
+
+  @Test
+  void testDeepTree() {
+    Component component = text("deep");
+    for(int i = 0; i < 10000; i++) {
+      component = text().append(component).build();
+    }
+    component = text().color(NamedTextColor.RED).append(component).append(text("wide", NamedTextColor.BLUE)).build();
+    this.test(component, "<red>deep</red><blue>wide");
+  }
+
+  @Test
+  void testEqualHexColors() {
+    final String expected = "<color:#ff0000>ab</color:#ff0000><red>c";
+
+    final Builder builder = Component.text()
+      .append(Component.text("a", TextColor.color(0xff0000)))
+      .append(Component.text("b", TextColor.color(0xff0000)))
+      .append(Component.text("c", NamedTextColor.RED));
+
+    this.test(builder, expected);
+  }
+
+  @Test
+  void testDecorationDelta() {
+    final String expected = "<bold><italic>a</italic><underlined>b</bold></underlined><strikethrough>c";
+
+    final Builder builder = Component.text()
+      .append(Component.text("a").decoration(TextDecoration.BOLD, true).decoration(TextDecoration.ITALIC, true))
+      .append(Component.text("b").decoration(TextDecoration.BOLD, true).decoration(TextDecoration.UNDERLINED, true))
+      .append(Component.text("c").decoration(TextDecoration.STRIKETHROUGH, true));
+
+    this.test(builder, expected);
+  }
+
   private void test(final @NonNull ComponentLike builder, final @NonNull String expected) {
     final String string = MiniMessageSerializer.serialize(builder.asComponent());
     assertEquals(expected, string);
+
+    final StringBuilder appendable = new StringBuilder("before ");
+    MiniMessage.get().serialize(builder.asComponent(), appendable);
+    assertEquals("before " + expected, appendable.toString());
   }
 }
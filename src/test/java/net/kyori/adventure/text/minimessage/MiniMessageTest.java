@@ -25,19 +25,33 @@ package net.kyori.adventure.text.minimessage;
 
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.ComponentLike;
+import net.kyori.adventure.text.event.ClickEvent;
 import net.kyori.adventure.text.event.HoverEvent;
 import net.kyori.adventure.text.format.NamedTextColor;
 import net.kyori.adventure.text.format.TextColor;
 import net.kyori.adventure.text.format.TextDecoration;
+import net.kyori.adventure.text.minimessage.transformation.Transformation;
+import net.kyori.adventure.text.minimessage.transformation.TransformationRegistry;
 import net.kyori.adventure.text.minimessage.transformation.TransformationType;
 import net.kyori.adventure.text.serializer.gson.GsonComponentSerializer;
 
 import org.junit.jupiter.api.Test;
 
+import java.io.StringReader;
+import java.nio.CharBuffer;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
 
 import static net.kyori.adventure.text.format.Style.style;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 public class MiniMessageTest {
@@ -74,6 +88,24 @@ public class MiniMessageTest {
     assertEquals(expected, result);
   }
 
+  @Test
+  void testPlaceholdersAreReplacedOnce() {
+    final Component expected = Component.text("<other>", NamedTextColor.RED);
+    final Component result = MiniMessage.get().parse("<red><test>", "test", "<other>", "other", "OTHER");
+
+    assertEquals(expected, result);
+    assertEquals(expected, MiniMessage.get().parse("<red><test>", Template.of("test", "<other>"), Template.of("other", "OTHER")));
+  }
+
+  @Test
+  void testPlainText() {
+    assertEquals(Component.text("just some chat, nothing fancy :)"), MiniMessage.get().parse("just some chat, nothing fancy :)"));
+    assertEquals(Component.text("just some chat"), MiniMessage.markdown().parse("just some chat"));
+    assertEquals(Component.text("some", style(TextDecoration.BOLD)), MiniMessage.markdown().parse("**some**"));
+    assertEquals(Component.text("a\nb"), MiniMessage.get().parse("a\\nb"));
+    assertEquals(Component.empty(), MiniMessage.get().parse(""));
+  }
+
   @Test
   void testObjectPlaceholders() {
     final Component expected = Component.text()
@@ -106,6 +138,45 @@ public class MiniMessageTest {
     assertEquals(expected, result);
   }
 
+  @Test
+  void testMarkdownOnlyInText() {
+    final Component expected = Component.text()
+      .append(Component.text("a b", style(TextDecoration.ITALIC)))
+      .append(Component.text("link", style(ClickEvent.openUrl("https://example.com/a_b_c"))))
+      .append(Component.text("**left open"))
+      .build();
+    final Component result = MiniMessage.markdown().parse("_a b_<click:open_url:'https://example.com/a_b_c'>link</click>**left open");
+
+    assertEquals(expected, result);
+  }
+
+  @Test
+  void testMarkdownWithPlaceholders() {
+    final String input = "_a b_<click:open_url:'https://example.com/a_b_c'><name></click>**left open";
+    final Component expected = MiniMessage.markdown().parse(input.replace("<name>", "link"));
+
+    assertEquals(expected, MiniMessage.markdown().parse(input, "name", "link"));
+    assertEquals(expected, MiniMessage.markdown().parse(input, Collections.singletonMap("name", "link")));
+    assertEquals(expected, MiniMessage.markdown().parse(input, Template.of("name", "link")));
+    assertEquals(expected, MiniMessage.markdown().parse(input, Collections.singletonList(Template.of("name", Component.text("link")))));
+  }
+
+  @Test
+  void testMarkdownNotInPlaceholderValues() {
+    final String input = "<name> says **hi** <other>";
+    final Component expected = MiniMessage.get().parse("__xX_Gamer_Xx__ says <bold>hi</bold> **a**||");
+
+    assertEquals(expected, MiniMessage.markdown().parse(input, "name", "__xX_Gamer_Xx__", "other", "**a**||"));
+    final Map<String, String> placeholders = new LinkedHashMap<>();
+    placeholders.put("name", "__xX_Gamer_Xx__");
+    placeholders.put("other", "**a**||");
+    assertEquals(expected, MiniMessage.markdown().parse(input, placeholders));
+    assertEquals(expected, MiniMessage.markdown().parse(input, Template.of("name", "__xX_Gamer_Xx__"), Template.of("other", "**a**||")));
+    assertEquals(expected, MiniMessage.markdown().parse(input, Arrays.asList(Template.of("name", "__xX_Gamer_Xx__"), Template.of("other", "**a**||"))));
+    // keys with tag characters are replaced one after another
+    assertEquals(expected, MiniMessage.markdown().parse("<name> says **hi** <<o>>", "name", "__xX_Gamer_Xx__", "<o>", "**a**||"));
+  }
+
   @Test
   void testTemplateSimple() {
     final Component expected = Component.text("TEST");
@@ -263,4 +334,236 @@ public class MiniMessageTest {
     final Component result3 = MiniMessage.get().parse(input, "username", "MiniDigger", "message", "</pre><red>Test");
     assertEquals(expected2, result3);
   }
+
+  @Test
+  void testCompiledRender() {
+    final String input = "<green><bold><test> and <other>";
+    final CompiledMessage compiled = MiniMessage.get().compile(input);
+
+    final Template[] first = {Template.of("test", Component.text("ONE", NamedTextColor.RED)), Template.of("other", Component.text("TWO"))};
+    final Template[] second = {Template.of("test", Component.text("THREE")), Template.of("other", Component.text("FOUR", NamedTextColor.BLUE))};
+
+    assertEquals(MiniMessage.get().parse(input, first), compiled.render(first));
+    assertEquals(MiniMessage.get().parse(input, second), compiled.render(second));
+    assertEquals(MiniMessage.get().parse(input, first), compiled.render(first));
+  }
+
+  @Test
+  void testCompiledMissingTemplate() {
+    final Component expected = Component.text()
+      .append(Component.text("Hello ", NamedTextColor.RED))
+      .append(Component.text("<name>", NamedTextColor.RED))
+      .build();
+    final Component result = MiniMessage.get().compile("<red>Hello <name>").render();
+
+    assertEquals(expected, result);
+  }
+
+  @Test
+  void testCompiledStringTemplate() {
+    final Component expected = Component.text()
+      .append(Component.text("Hello ", NamedTextColor.RED))
+      .append(Component.text("World", style(NamedTextColor.RED, TextDecoration.BOLD)))
+      .build();
+    final Component result = MiniMessage.get().compile("<red>Hello <name>").render(Template.of("name", "<bold>World"));
+
+    assertEquals(expected, result);
+  }
+
+  @Test
+  void testCompiledStaticRender() {
+    final String input = "<red>Hello <hover:show_text:'<name>'>World";
+    final CompiledMessage compiled = MiniMessage.get().compile(input);
+    final Template name = Template.of("name", Component.text("you"));
+
+    assertSame(compiled.render(), compiled.render());
+    assertSame(compiled.render(), compiled.render(Template.of("other", Component.text("unused"))));
+    assertEquals(MiniMessage.get().parse(input, name), compiled.render(name));
+    assertNotEquals(compiled.render(), compiled.render(name));
+  }
+
+  @Test
+  void testCompiledRenderAsksResolver() {
+    final AtomicInteger counter = new AtomicInteger();
+    final MiniMessage miniMessage = MiniMessage.builder().placeholderResolver(name -> name.equals("count") ? Component.text(String.valueOf(counter.incrementAndGet())) : null).build();
+    final CompiledMessage compiled = miniMessage.compile("<red>Hello <count>");
+
+    final Function<String, Component> expected = count -> Component.text()
+      .append(Component.text("Hello ", NamedTextColor.RED))
+      .append(Component.text(count, NamedTextColor.RED))
+      .build();
+
+    assertEquals(expected.apply("1"), compiled.render());
+    assertEquals(expected.apply("2"), compiled.render());
+    assertEquals(expected.apply("3"), compiled.render(Template.of("other", "unused")));
+  }
+
+  @Test
+  void testCompiledMarkdown() {
+    final Component expected = Component.text("BOLD", style(NamedTextColor.RED, TextDecoration.BOLD));
+    final CompiledMessage compiled = MiniMessage.markdown().compile("**<red>BOLD**");
+
+    assertEquals("**<red>BOLD**", compiled.input());
+    assertEquals(expected, compiled.render());
+  }
+
+  @Test
+  void testParseCache() {
+    final ParseCache cache = ParseCache.create(2);
+    final MiniMessage miniMessage = MiniMessage.builder().cache(cache).build();
+
+    final Component first = miniMessage.parse("<red>Test");
+    assertEquals(Component.text("Test", NamedTextColor.RED), first);
+    assertSame(first, miniMessage.parse("<red>Test"));
+    assertEquals(1, cache.stats().hits());
+    assertEquals(1, cache.stats().misses());
+
+    miniMessage.parse("<blue>Test");
+    miniMessage.parse("<green>Test");
+    assertEquals(2, cache.size());
+    assertEquals(1, cache.stats().evictions());
+    assertNotSame(first, miniMessage.parse("<red>Test"));
+  }
+
+  @Test
+  void testParseCacheSharedBetweenConfigurations() {
+    final ParseCache cache = ParseCache.create(16);
+    final MiniMessage normal = MiniMessage.builder().cache(cache).build();
+    final MiniMessage markdown = MiniMessage.builder().markdown().cache(cache).build();
+    final MiniMessage otherNormal = MiniMessage.builder().cache(cache).build();
+
+    assertEquals(Component.text("**Test**", NamedTextColor.RED), normal.parse("<red>**Test**"));
+    assertEquals(Component.text("Test", style(NamedTextColor.RED, TextDecoration.BOLD)), markdown.parse("<red>**Test**"));
+    assertEquals(Component.text("**Test**", NamedTextColor.RED), otherNormal.parse("<red>**Test**"));
+    assertEquals(2, cache.size());
+    assertEquals(1, cache.stats().hits());
+  }
+
+  @Test
+  void testParseCacheSharedBetweenColorTolerances() {
+    final ParseCache cache = ParseCache.create(16);
+    final MiniMessage perCharacter = MiniMessage.builder().cache(cache).build();
+    final MiniMessage grouped = MiniMessage.builder().groupColors(0).cache(cache).build();
+    final String input = "<gradient:red:red>Test";
+
+    assertEquals(4, perCharacter.parse(input).children().size());
+    assertEquals(Component.text("Test", NamedTextColor.RED), grouped.parse(input));
+    assertEquals(4, perCharacter.parse(input).children().size());
+    assertEquals(2, cache.size());
+  }
+
+  @Test
+  void testSerializeCache() {
+    final SerializeCache cache = SerializeCache.create(64);
+    final MiniMessage miniMessage = MiniMessage.builder().serializeCache(cache).build();
+
+    final Component prefix = Component.text("Test", NamedTextColor.RED);
+    assertEquals("<red>Test", miniMessage.serialize(prefix));
+    assertEquals("<red>Test", miniMessage.serialize(prefix));
+    assertEquals("<red>Test", miniMessage.serialize(Component.text("Test", NamedTextColor.RED)));
+    assertEquals(2, cache.stats().hits());
+    assertEquals(1, cache.stats().misses());
+
+    final Component hover = Component.text("a").hoverEvent(HoverEvent.showText(prefix));
+    assertEquals("<hover:show_text:\"<red>Test\">a", miniMessage.serialize(hover));
+    assertEquals(3, cache.stats().hits());
+    assertEquals(2, cache.stats().misses());
+
+    final StringBuilder output = new StringBuilder("> ");
+    miniMessage.serialize(hover, output);
+    assertEquals("> <hover:show_text:\"<red>Test\">a", output.toString());
+    assertEquals(4, cache.stats().hits());
+    assertEquals(2, cache.size());
+  }
+
+  @Test
+  void testFrames() {
+    final String[] phases = {"0.5", "1", "-0.5", "0"};
+    final List<Component> frames = MiniMessage.get().frames("<blue>static <gradient:red:blue:0.5>moving</gradient> <bold>end", phases.length);
+
+    assertEquals(phases.length, frames.size());
+    for(int i = 0; i < phases.length; i++) {
+      assertEquals(MiniMessage.get().parse("<blue>static <gradient:red:blue:" + phases[i] + ">moving</gradient> <bold>end"), frames.get(i));
+      assertSame(frames.get(0).children().get(0), frames.get(i).children().get(0));
+    }
+
+    final List<Component> rainbow = MiniMessage.get().frames("<rainbow>rainbow", 3);
+    assertEquals(MiniMessage.get().parse("<rainbow>rainbow"), rainbow.get(0));
+    assertNotEquals(rainbow.get(0), rainbow.get(1));
+
+    assertThrows(IllegalArgumentException.class, () -> MiniMessage.get().frames("<red>Test", 0));
+  }
+
+  @Test
+  void testInternedTransformations() {
+    final TransformationRegistry registry = new TransformationRegistry();
+    final Context context = Context.of(false, "", (MiniMessageImpl) MiniMessage.get());
+    final Function<String, Transformation> get = name -> registry.get(name, Collections.emptyList(), Collections.emptyMap(), key -> null, context);
+
+    assertSame(get.apply("red"), get.apply("red"));
+    assertSame(get.apply("bold"), get.apply("bold"));
+    assertNotSame(get.apply("red"), get.apply("RED"));
+    assertNotSame(get.apply("rainbow"), get.apply("rainbow"));
+    assertNotSame(get.apply("#ff0000"), get.apply("#ff0000"));
+  }
+
+  @Test
+  void testSessionPools() {
+    final String input = "<red>Hello <hover:show_text:'<blue>nested <bold>hover'>World</hover> <gradient:red:blue>!!!";
+    final Component expected = MiniMessage.builder().sessionPool(ParseSessionPool.none()).build().parse(input);
+
+    for(final ParseSessionPool pool : new ParseSessionPool[] {ParseSessionPool.threadLocal(), ParseSessionPool.bounded(1)}) {
+      final MiniMessage miniMessage = MiniMessage.builder().sessionPool(pool).build();
+      assertEquals(expected, miniMessage.parse(input));
+      assertEquals(expected, miniMessage.parse(input));
+    }
+  }
+
+  @Test
+  void testToBuilderKeepsSessionPool() {
+    final AtomicInteger acquired = new AtomicInteger();
+    final ParseSessionPool pool = new ParseSessionPool() {
+      @Override
+      ParseSession acquire() {
+        acquired.incrementAndGet();
+        return new ParseSession();
+      }
+
+      @Override
+      void release(final ParseSession session) {
+      }
+    };
+    final MiniMessage miniMessage = MiniMessage.builder().sessionPool(pool).build().toBuilder().build();
+
+    miniMessage.parse("<red>Test");
+    assertEquals(1, acquired.get());
+  }
+
+  @Test
+  void testStreaming() {
+    final MiniMessage streaming = MiniMessage.builder().streaming(true).build();
+    final String[] inputs = {
+      "<red>Hello <hover:show_text:'<blue>nested <bold>hover'>World</hover> <gradient:red:blue>!!!",
+      "<click:run_command:/test>unclosed <hover:show_text:'tag",
+      "<yellow>\\<red>escaped</red> <unknown:tag:here> and </close:with:params> <",
+      "text only </red"
+    };
+
+    for(final String input : inputs) {
+      assertEquals(MiniMessage.get().parse(input), streaming.parse(input));
+    }
+    assertThrows(ParseException.class, () -> MiniMessage.builder().streaming(true).strict(true).build().parse("<red>illegal <$>"));
+  }
+
+  @Test
+  void testParseCharSequenceAndReader() {
+    final String input = "<red>Hello <hover:show_text:'it\\'s <blue>me'>World</hover> \\<escaped> <gradient:red:blue>!!!";
+    final Component expected = MiniMessage.get().parse(input);
+
+    assertEquals(expected, MiniMessage.get().parse(CharBuffer.wrap(input)));
+    assertEquals(expected, MiniMessage.get().parse(new StringBuilder(input)));
+    assertEquals(expected, MiniMessage.get().parse(new StringReader(input)));
+    assertEquals(expected, MiniMessage.builder().streaming(true).build().parse(new StringReader(input)));
+    assertEquals(MiniMessage.markdown().parse("**" + input), MiniMessage.markdown().parse(new StringReader("**" + input)));
+  }
 }
@@ -220,4 +220,51 @@ public class MiniMarkdownParserTest {
 
     assertEquals(expected, output);
   }
+
+  @Test
+  void testTableMatchesPredicates() {
+    final char[] chars = {'*', '_', '~', '|', ' ', 'a', '\0', '\u00e9', '\uff0a'};
+    for(final MarkdownFlavor flavor : new MarkdownFlavor[] {LegacyFlavor.get(), GithubFlavor.get(), DiscordFlavor.get()}) {
+      final MarkdownTable table = MarkdownTable.of(flavor);
+      for(final char current : chars) {
+        for(final char next : chars) {
+          assertEquals(MarkdownTable.of(new PredicatesOnly(flavor)).decoration(current, next), table.decoration(current, next), flavor + " " + current + next);
+        }
+      }
+    }
+  }
+
+  // hides the table of a flavor, so it is only asked through its predicates
+  private static final class PredicatesOnly implements MarkdownFlavor {
+    private final MarkdownFlavor flavor;
+
+    PredicatesOnly(final MarkdownFlavor flavor) {
+      this.flavor = flavor;
+    }
+
+    @Override
+    public boolean isBold(final char current, final char next) {
+      return this.flavor.isBold(current, next);
+    }
+
+    @Override
+    public boolean isItalic(final char current, final char next) {
+      return this.flavor.isItalic(current, next);
+    }
+
+    @Override
+    public boolean isUnderline(final char current, final char next) {
+      return this.flavor.isUnderline(current, next);
+    }
+
+    @Override
+    public boolean isStrikeThrough(final char current, final char next) {
+      return this.flavor.isStrikeThrough(current, next);
+    }
+
+    @Override
+    public boolean isObfuscate(final char current, final char next) {
+      return this.flavor.isObfuscate(current, next);
+    }
+  }
 }
@@ -31,6 +31,8 @@ import java.util.Arrays;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 public class MiniMessageLexerTest {
 
@@ -39,6 +41,76 @@ public class MiniMessageLexerTest {
     this.test("<red>This is a test</red><yellow>Wooo<#112233>hex!</#112233><color:blue>Named color</color>");
     this.test("<hover:show_text:'<red>test'>TEST</hover>");
     this.test("<rainbow><treerev> <click:open_url:'https://github.com'>https://github.com</click></rainbow>");
+    this.test("some plain text <hover:show_text:\"a quoted run with <red>tags\">and more text</hover> at the end");
+  }
+
+  @Test
+  void testTokenPositions() throws Exception {
+    final String input = "<red>Hello <hover:show_text:'it\\'s me'>World</hover>";
+    final MiniMessageLexer lexer = new MiniMessageLexer(input, Context.of(false, null, null));
+    final List<Token> tokens = lexer.scan();
+
+    final Token name = tokens.get(1);
+    assertEquals(TokenType.NAME, name.type());
+    assertEquals("red", name.contents().toString());
+    assertEquals(1, name.start());
+    assertEquals(4, name.end());
+
+    final Token text = tokens.get(3);
+    assertEquals("Hello ", text.value());
+    assertEquals(input.indexOf("Hello"), text.start());
+
+    // escaped quotes can't be a view of the input, but still know where they are
+    final Token quoted = tokens.get(10);
+    assertEquals("it's me", quoted.value());
+    assertEquals(input.indexOf("it"), quoted.start());
+    assertEquals(input.indexOf("me") + 2, quoted.end());
+  }
+
+  @Test
+  void testTokenBuffer() throws Exception {
+    final String input = "<red></red>text<hover:show_text:''>\\<x>";
+    final MiniMessageLexer lexer = new MiniMessageLexer(input, Context.of(false, null, null));
+    lexer.scan();
+    final TokenBuffer buffer = lexer.buffer();
+
+    for(int i = 0; i < buffer.size(); i++) {
+      final Token token = buffer.get(i);
+      // empty names and strings are never added
+      assertFalse(token.value().isEmpty());
+      assertEquals(token.type(), buffer.type(i));
+      assertEquals(token.value(), buffer.value(i));
+      assertEquals(token.start(), buffer.start(i));
+      assertEquals(token.end(), buffer.end(i));
+    }
+
+    final TokenBuffer copy = buffer.copy();
+    lexer.reset("other", Context.of(false, null, null));
+    lexer.scan();
+    assertEquals(1, buffer.size());
+    assertEquals("text", copy.value(6));
+    assertThrows(UnsupportedOperationException.class, () -> copy.add(new Token("text")));
+  }
+
+  @Test
+  void testStreamedBuffer() throws Exception {
+    final String input = "<red>Hello <hover:show_text:'it\\'s me'>World</hover> and more";
+    final List<Token> expected = new MiniMessageLexer(input, Context.of(false, null, null)).scan();
+    final TokenBuffer buffer = new MiniMessageLexer(input, Context.of(false, null, null)).stream();
+
+    int i = 0;
+    while(buffer.has(i)) {
+      buffer.discard(i);
+      assertEquals(expected.get(i).type(), buffer.type(i));
+      assertEquals(expected.get(i).value(), buffer.value(i));
+      // earlier tokens are gone once discarded
+      if(i > 0) {
+        final int previous = i - 1;
+        assertThrows(IndexOutOfBoundsException.class, () -> buffer.type(previous));
+      }
+      i++;
+    }
+    assertEquals(expected.size(), i);
   }
 
   private void test(final String input) throws Exception {
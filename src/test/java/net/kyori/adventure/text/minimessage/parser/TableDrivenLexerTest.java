@@ -0,0 +1,130 @@
+/*
+ * This file is part of adventure-text-minimessage, licensed under the MIT License.
+ *
+ * Copyright (c) 2018-2020 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.adventure.text.minimessage.parser;
+
+import net.kyori.adventure.text.minimessage.Context;
+import net.kyori.adventure.text.minimessage.markdown.DiscordFlavor;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+// the hand-written lexer has to create exactly the same tokens as the generated one
+public class TableDrivenLexerTest {
+  private static final String[] CORPUS = {
+    "",
+    "plain text",
+    "<red>This is a test</red><yellow>Wooo<#112233>hex!</#112233><color:blue>Named color</color>",
+    "<hover:show_text:'<red>test'>TEST</hover>",
+    "<hover:show_text:\"a quoted run with <red>tags\">and more text</hover> at the end",
+    "<click:run_command:'/say it\\'s me'>click</click> <hover:show_text:\"say \\\"hi\\\"\">hi",
+    "\\<red>escaped\\</red> \\<red>\n<blue>after whitespace \\<b:x>",
+    "line\\nbreak\\N and a \\ backslash > and <",
+    "<red>unclosed <hover:show_text:'never ends",
+    "<b>illegal <$> <a:b!c> chars</b>",
+    "<gradient:#ff0000:#00ff00:0.5>g</gradient><rainbow:!3>r</rainbow>",
+    "multi\nline\r\ninput <red>\rwith <$> error",
+    "non ascii é 𐌲 <\u212Aelvin> <color:\u017Fhort> <𐌲>",
+    "<<<>>> </> <:> <'> \\<\\</\\>",
+  };
+  private static final String[] FRAGMENTS = {"<", "</", ">", "\\", "\\<", "\\</", ":", "'", "\"", "\\'", "\\\"", "\\n", "\\N", " ", "\n", "\r", "\t", "a", "red", "Text", "#fff", "_-./", "!", "$", "é", "𐌲", "\u2028", "\u212A"};
+
+  @Test
+  void testCorpus() {
+    for(final String input : CORPUS) {
+      this.assertSameTokens(input, false);
+      this.assertSameTokens(input, true);
+    }
+  }
+
+  @Test
+  void testRandomInputs() {
+    final Random random = new Random(42);
+    for(int i = 0; i < 2000; i++) {
+      final StringBuilder input = new StringBuilder();
+      final int length = 1 + random.nextInt(16);
+      for(int j = 0; j < length; j++) {
+        input.append(FRAGMENTS[random.nextInt(FRAGMENTS.length)]);
+      }
+      this.assertSameTokens(input.toString(), i % 2 == 0);
+    }
+  }
+
+  @Test
+  void testMarkdown() {
+    final String input = "**a** <click:run_command:'/a_b'>~~b\\n~~</click> __c";
+    final TableDrivenLexer lexer = new TableDrivenLexer();
+    lexer.reset(input, Context.of(false, input, null), DiscordFlavor.get());
+    final TokenBuffer tokens = lexer.buffer();
+    lexer.scan();
+
+    final String[] expected = {"<", "bold", ">", "a", "</", "bold", ">", " ", "<", "click", ":", "run_command", ":", "'", "/a_b", "'", ">",
+      "<", "strikethrough", ">", "b\n", "</", "strikethrough", ">", "</", "click", ">", " __c"};
+    assertEquals(expected.length, tokens.size());
+    for(int i = 0; i < expected.length; i++) {
+      assertEquals(expected[i], tokens.value(i), "token " + i);
+    }
+    // the unclosed marker is text again, joined with the text around it
+    assertEquals(TokenType.STRING, tokens.type(expected.length - 1));
+    assertEquals(input.length() - 4, tokens.start(expected.length - 1));
+    assertEquals(input.length(), tokens.end(expected.length - 1));
+  }
+
+  private void assertSameTokens(final String input, final boolean strict) {
+    final Context context = Context.of(strict, input, null);
+    List<Token> expected = null;
+    String expectedError = null;
+    try {
+      expected = new MiniMessageLexer(input, context).scan();
+    } catch(final Exception e) {
+      expectedError = e.getMessage();
+    }
+    List<Token> actual = null;
+    String actualError = null;
+    try {
+      actual = new TableDrivenLexer(input, context).scan();
+    } catch(final ParsingException e) {
+      actualError = e.getMessage();
+    }
+
+    assertEquals(expectedError, actualError, input);
+    if(expected == null) {
+      assertNull(actual);
+      return;
+    }
+    assertEquals(expected.size(), actual.size(), input);
+    for(int i = 0; i < expected.size(); i++) {
+      final Token expectedToken = expected.get(i);
+      final Token actualToken = actual.get(i);
+      assertEquals(expectedToken.type(), actualToken.type(), input);
+      assertEquals(expectedToken.value(), actualToken.value(), input);
+      assertEquals(expectedToken.start(), actualToken.start(), input);
+      assertEquals(expectedToken.end(), actualToken.end(), input);
+    }
+  }
+}